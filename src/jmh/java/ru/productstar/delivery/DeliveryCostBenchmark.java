@@ -0,0 +1,71 @@
+package ru.productstar.delivery;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение расчета стоимости доставки в {@code double}, в копейках и через {@code BigDecimal},
+ * как это делает сверка заказов.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeliveryCostBenchmark {
+    private static final int SIZE = 1024;
+
+    private final Distance[] distances = new Distance[SIZE];
+    private final CargoSize[] cargoSizes = new CargoSize[SIZE];
+    private final DeliveryServiceWorkload[] workloads = new DeliveryServiceWorkload[SIZE];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            distances[i] = Distance.values()[random.nextInt(Distance.values().length)];
+            cargoSizes[i] = CargoSize.values()[random.nextInt(CargoSize.values().length)];
+            workloads[i] = DeliveryServiceWorkload.values()[random.nextInt(DeliveryServiceWorkload.values().length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double calculateDeliveryCost() {
+        double total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += DeliveryCost.calculateDeliveryCost(distances[i], cargoSizes[i], CargoFragility.NOT_FRAGILE, workloads[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long calculateDeliveryCostKopecks() {
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += DeliveryCost.calculateDeliveryCostKopecks(distances[i], cargoSizes[i], CargoFragility.NOT_FRAGILE, workloads[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long calculateDeliveryCostBigDecimal() {
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            double cost = DeliveryCost.calculateDeliveryCost(distances[i], cargoSizes[i], CargoFragility.NOT_FRAGILE, workloads[i]);
+            total += BigDecimal.valueOf(cost).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        return total;
+    }
+}
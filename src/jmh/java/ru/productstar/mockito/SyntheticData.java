@@ -0,0 +1,117 @@
+package ru.productstar.mockito;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.model.Customer;
+import ru.productstar.mockito.model.Product;
+import ru.productstar.mockito.model.Stock;
+import ru.productstar.mockito.model.Warehouse;
+import ru.productstar.mockito.repository.CustomerRepository;
+import ru.productstar.mockito.repository.OrderRepository;
+import ru.productstar.mockito.repository.ProductRepository;
+import ru.productstar.mockito.repository.WarehouseRepository;
+import ru.productstar.mockito.service.CustomerService;
+import ru.productstar.mockito.service.OrderService;
+import ru.productstar.mockito.service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Синтетические данные для бенчмарков. Размеры задаются параметрами JMH, например
+ * {@code -p products=1000000 -p warehouses=5000}.
+ */
+@State(Scope.Benchmark)
+public class SyntheticData {
+    private static final int LOOKUPS = 1 << 12;
+
+    @Param("100000")
+    public int products;
+
+    @Param("500")
+    public int warehouses;
+
+    @Param("20")
+    public int stocksPerWarehouse;
+
+    @Param("10000")
+    public int customers;
+
+    public ProductRepository productRepository;
+    public WarehouseRepository warehouseRepository;
+    public CustomerRepository customerRepository;
+    public OrderRepository orderRepository;
+
+    public WarehouseService warehouseService;
+    public CustomerService customerService;
+    public OrderService orderService;
+
+    /**
+     * Имена товаров, которые есть на складах, и имена существующих покупателей, по которым идут запросы.
+     */
+    public String[] productNames = new String[LOOKUPS];
+    public String[] stockedProductNames = new String[LOOKUPS];
+    public String[] customerNames = new String[LOOKUPS];
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+
+        productRepository = new ProductRepository();
+        for (int i = 0; i < products; i++) {
+            productRepository.add(new Product("product-" + i));
+        }
+
+        warehouseRepository = new WarehouseRepository(productRepository);
+        List<Warehouse> generated = new ArrayList<>(warehouses);
+        for (int w = 0; w < warehouses; w++) {
+            Warehouse warehouse = new Warehouse("warehouse-" + w, random.nextInt(50));
+            for (int s = 0; s < stocksPerWarehouse; s++) {
+                Product product = productRepository.all().get(random.nextInt(productRepository.size()));
+                warehouse.addStock(new Stock(product, 10 + random.nextInt(1000), 1 + random.nextInt(100)));
+            }
+            generated.add(warehouse);
+        }
+        warehouseRepository.addAll(generated);
+
+        customerRepository = new CustomerRepository();
+        for (int i = 0; i < customers; i++) {
+            customerRepository.add(new Customer("customer-" + i));
+        }
+        warehouseService = new WarehouseService(warehouseRepository);
+        customerService = new CustomerService(customerRepository);
+        resetOrders();
+
+        List<Customer> allCustomers = customerRepository.all();
+        for (int i = 0; i < LOOKUPS; i++) {
+            productNames[i] = productRepository.all().get(random.nextInt(productRepository.size())).getName();
+
+            Warehouse warehouse = warehouseRepository.getById(random.nextInt(warehouseRepository.size()));
+            stockedProductNames[i] = warehouse.getStocks().get(random.nextInt(warehouse.getStocks().size()))
+                    .getProduct().getName();
+
+            customerNames[i] = allCustomers.get(random.nextInt(allCustomers.size())).getName();
+        }
+    }
+
+    /**
+     * Пустое хранилище заказов на каждую итерацию: заказы, созданные бенчмарками, не копятся за весь прогон,
+     * и размер хранилища и нагрузка на GC одинаковы в начале каждой итерации.
+     */
+    @Setup(Level.Iteration)
+    public void resetOrders() {
+        orderRepository = new OrderRepository();
+        orderService = new OrderService(customerService, warehouseService, orderRepository, productRepository);
+    }
+
+    /**
+     * Индекс следующего запроса; данные общие для потоков, поэтому гонка за курсор безвредна.
+     */
+    public int next() {
+        int next = (cursor + 1) & (LOOKUPS - 1);
+        cursor = next;
+        return next;
+    }
+}
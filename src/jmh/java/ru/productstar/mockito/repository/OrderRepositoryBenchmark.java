@@ -0,0 +1,52 @@
+package ru.productstar.mockito.repository;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.model.Customer;
+import ru.productstar.mockito.model.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание заказов из разного числа потоков: выдача id и запись в сегмент без блокировок, время вызова
+ * не должно расти с числом потоков. Хранилище создается заново на каждую итерацию, чтобы итерации
+ * не накапливали заказы; внутри итерации оно растет, поэтому в замер входит и создание новых сегментов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderRepositoryBenchmark {
+    private final Customer customer = new Customer("customer");
+    private OrderRepository orderRepository;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        orderRepository = new OrderRepository();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Order create1() {
+        return orderRepository.create(customer);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Order create2() {
+        return orderRepository.create(customer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order create4() {
+        return orderRepository.create(customer);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Order create8() {
+        return orderRepository.create(customer);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.productstar.mockito.repository;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.SyntheticData;
+import ru.productstar.mockito.model.Product;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductRepositoryBenchmark {
+
+    @Benchmark
+    public Product getByName(SyntheticData data) {
+        return data.productRepository.getByName(data.productNames[data.next()]);
+    }
+
+    /**
+     * Время поиска по названию должно оставаться одинаковым при росте каталога от 10 до 10 млн товаров.
+     */
+    @Benchmark
+    public Product getByNameScaling(Catalog catalog, IndexFootprint footprint) {
+        return catalog.productRepository.getByName(catalog.names[catalog.next()]);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        private static final int LOOKUPS = 1 << 12;
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        public ProductRepository productRepository;
+        public String[] names = new String[LOOKUPS];
+
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            productRepository = new ProductRepository();
+            for (int i = productRepository.size(); i < size; i++) {
+                productRepository.add(new Product("product-" + i));
+            }
+
+            Random random = new Random(42);
+            for (int i = 0; i < LOOKUPS; i++) {
+                names[i] = productRepository.all().get(random.nextInt(productRepository.size())).getName();
+            }
+        }
+
+        public int next() {
+            int next = (cursor + 1) & (LOOKUPS - 1);
+            cursor = next;
+            return next;
+        }
+    }
+
+    /**
+     * Оценка памяти индекса на товар попадает в отчет JMH рядом со временем поиска.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class IndexFootprint {
+        public double indexBytesPerProduct;
+
+        @Setup(Level.Iteration)
+        public void measure(Catalog catalog) {
+            indexBytesPerProduct = catalog.productRepository.estimateIndexBytesPerProduct();
+        }
+    }
+}
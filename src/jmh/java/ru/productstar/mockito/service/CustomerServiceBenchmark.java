@@ -0,0 +1,44 @@
+package ru.productstar.mockito.service;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.SyntheticData;
+import ru.productstar.mockito.model.Customer;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CustomerServiceBenchmark {
+
+    @Benchmark
+    public Customer getOrCreateExisting(SyntheticData data) {
+        return data.customerService.getOrCreate(data.customerNames[data.next()]);
+    }
+
+    /**
+     * То же из нескольких потоков: поиск по имени не блокирует, время вызова не должно расти с числом потоков.
+     */
+    @Benchmark
+    @Threads(4)
+    public Customer getOrCreateExistingThreaded(SyntheticData data, Cursor cursor) {
+        return data.customerService.getOrCreate(data.customerNames[cursor.next(data.customerNames.length)]);
+    }
+
+    /**
+     * Свой курсор у каждого потока: общий курсор {@link SyntheticData#next()} — это гонка на одном поле,
+     * которая попала бы в замер.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int cursor;
+
+        public int next(int length) {
+            int next = (cursor + 1) & (length - 1);
+            cursor = next;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.productstar.mockito.service;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.ProductNotFoundException;
+import ru.productstar.mockito.SyntheticData;
+import ru.productstar.mockito.model.Order;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderServiceBenchmark {
+    private Order order;
+
+    @Setup(Level.Iteration)
+    public void createOrder(SyntheticData data) {
+        order = data.orderService.create(data.customerNames[0]);
+    }
+
+    @Benchmark
+    public Order create(SyntheticData data) {
+        return data.orderService.create(data.customerNames[data.next()]);
+    }
+
+    @Benchmark
+    public Order addProduct(SyntheticData data) throws ProductNotFoundException {
+        return data.orderService.addProduct(order, data.stockedProductNames[data.next()], 1, false);
+    }
+
+    @Benchmark
+    public Order addProductCheapest(SyntheticData data) throws ProductNotFoundException {
+        return data.orderService.addProduct(order, data.stockedProductNames[data.next()], 1, WarehouseSelection.CHEAPEST);
+    }
+}
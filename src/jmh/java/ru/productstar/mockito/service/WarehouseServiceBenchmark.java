@@ -0,0 +1,30 @@
+package ru.productstar.mockito.service;
+
+import org.openjdk.jmh.annotations.*;
+import ru.productstar.mockito.SyntheticData;
+import ru.productstar.mockito.model.Warehouse;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WarehouseServiceBenchmark {
+
+    @Benchmark
+    public Warehouse findWarehouse(SyntheticData data) {
+        return data.warehouseService.findWarehouse(data.stockedProductNames[data.next()], 1);
+    }
+
+    @Benchmark
+    public Warehouse findClosestWarehouse(SyntheticData data) {
+        return data.warehouseService.findClosestWarehouse(data.stockedProductNames[data.next()], 1);
+    }
+
+    @Benchmark
+    public Warehouse findCheapestWarehouse(SyntheticData data) {
+        return data.warehouseService.findCheapestWarehouse(data.stockedProductNames[data.next()], 1);
+    }
+}
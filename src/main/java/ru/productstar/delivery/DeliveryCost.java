@@ -5,56 +5,158 @@ import ru.productstar.delivery.dicts.CargoSize;
 import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
 import ru.productstar.delivery.dicts.Distance;
 
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static ru.productstar.delivery.dicts.CargoFragility.FRAGILE;
-import static ru.productstar.delivery.dicts.DeliveryCostCoefficients.*;
-import static ru.productstar.delivery.dicts.DeliveryPrices.*;
 import static ru.productstar.delivery.dicts.Distance.OVER_30_KM;
 
 public class DeliveryCost {
+    private static final AtomicReference<TariffTable> TARIFF_TABLE =
+            new AtomicReference<>(TariffTable.compile(TariffSnapshot.defaults()));
+
     public static double calculateDeliveryCost(Distance distance,
                                         CargoSize cargoSize,
                                         CargoFragility cargoFragility,
                                         DeliveryServiceWorkload deliveryServiceWorkload) {
+        DeliveryQuote quote = quote(distance, cargoSize, cargoFragility, deliveryServiceWorkload);
+        if (quote.isForbidden()) {
+            throw new DeliveryIsForbiddenException(quote.getReason().getMessage());
+        }
+        return quote.getCost();
+    }
+
+    /**
+     * Стоимость доставки в копейках, посчитанная без плавающей точки.
+     */
+    public static long calculateDeliveryCostKopecks(Distance distance,
+                                                    CargoSize cargoSize,
+                                                    CargoFragility cargoFragility,
+                                                    DeliveryServiceWorkload deliveryServiceWorkload) {
+        DeliveryQuote quote = quote(distance, cargoSize, cargoFragility, deliveryServiceWorkload);
+        if (quote.isForbidden()) {
+            throw new DeliveryIsForbiddenException(quote.getReason().getMessage());
+        }
+        return quote.getCostKopecks();
+    }
+
+    /**
+     * Стоимость доставки по текущим тарифам. Запрещенная доставка не выбрасывает исключение,
+     * а возвращает котировку с причиной отказа.
+     */
+    public static DeliveryQuote quote(Distance distance,
+                                      CargoSize cargoSize,
+                                      CargoFragility cargoFragility,
+                                      DeliveryServiceWorkload deliveryServiceWorkload) {
+        return TARIFF_TABLE.get().quote(distance, cargoSize, cargoFragility, deliveryServiceWorkload);
+    }
+
+    public static TariffTable getTariffTable() {
+        return TARIFF_TABLE.get();
+    }
+
+    public static TariffSnapshot getTariffSnapshot() {
+        return TARIFF_TABLE.get().getSnapshot();
+    }
 
+    /**
+     * Публикует новые тарифы. Версия снимка должна быть больше текущей, иначе тарифы не меняются.
+     *
+     * @return {@code true}, если снимок опубликован
+     */
+    public static boolean publishTariffs(TariffSnapshot snapshot) {
+        TariffTable table = TariffTable.compile(snapshot);
+        TariffTable current;
+        do {
+            current = TARIFF_TABLE.get();
+            if (current.getVersion() >= snapshot.getVersion()) {
+                return false;
+            }
+        } while (!TARIFF_TABLE.compareAndSet(current, table));
+        return true;
+    }
+
+    /**
+     * Загружает тарифы из properties-файла и публикует их. Если версия в файле не указана,
+     * используется следующая за текущей; она вычисляется заново, если тарифы одновременно обновил другой поток.
+     *
+     * @throws IllegalArgumentException если версия, указанная в файле, не новее текущей
+     */
+    public static TariffSnapshot reloadTariffs(Path path) throws IOException {
+        Properties properties = TariffSnapshot.loadProperties(path);
+        while (true) {
+            TariffTable current = TARIFF_TABLE.get();
+            TariffSnapshot snapshot = TariffSnapshot.fromProperties(properties, current.getVersion() + 1);
+            if (current.getVersion() >= snapshot.getVersion()) {
+                throw new IllegalArgumentException(String.format("Версия тарифов %d не новее текущей %d.",
+                        snapshot.getVersion(), current.getVersion()));
+            }
+            if (TARIFF_TABLE.compareAndSet(current, TariffTable.compile(snapshot))) {
+                return snapshot;
+            }
+        }
+    }
+
+    /**
+     * Возвращает ранее опубликованные тарифы без проверки версии; только для тестов.
+     */
+    static void restoreTariffs(TariffTable table) {
+        TARIFF_TABLE.set(table);
+    }
+
+    static DeliveryQuote.Reason checkDelivery(Distance distance, CargoFragility cargoFragility) {
         if (distance == OVER_30_KM && cargoFragility == FRAGILE) {
-            throw new DeliveryIsForbiddenException("Хрупкие грузы нельзя возить на расстояние более 30 км.");
+            return DeliveryQuote.Reason.FRAGILE_CARGO_OVER_30_KM;
         }
+        return DeliveryQuote.Reason.ACCEPTED;
+    }
 
+    static double computeDeliveryCost(TariffSnapshot tariffs,
+                                      Distance distance,
+                                      CargoSize cargoSize,
+                                      CargoFragility cargoFragility,
+                                      DeliveryServiceWorkload deliveryServiceWorkload) {
         double deliveryCost = 0.00;
-        deliveryCost += calculatePriceForDistance(distance);
-        deliveryCost += calculatePriceForCargoSize(cargoSize);
-        deliveryCost += calculatePriceForCargoFragility(cargoFragility);
-        deliveryCost *= getCoefficientForDeliveryServiceWorkload(deliveryServiceWorkload);
+        deliveryCost += tariffs.getPrice(distance);
+        deliveryCost += tariffs.getPrice(cargoSize);
+        deliveryCost += tariffs.getPrice(cargoFragility);
+        deliveryCost *= tariffs.getCoefficient(deliveryServiceWorkload);
+
+        return Math.max(deliveryCost, tariffs.getMinDeliveryPrice());
+    }
+
+    static long computeDeliveryCostKopecks(TariffSnapshot tariffs,
+                                           RoundingMode roundingMode,
+                                           Distance distance,
+                                           CargoSize cargoSize,
+                                           CargoFragility cargoFragility,
+                                           DeliveryServiceWorkload deliveryServiceWorkload) {
+        long deliveryCost = 0;
+        deliveryCost += MinorUnits.fromMajor(tariffs.getPrice(distance));
+        deliveryCost += MinorUnits.fromMajor(tariffs.getPrice(cargoSize));
+        deliveryCost += MinorUnits.fromMajor(tariffs.getPrice(cargoFragility));
+        deliveryCost = MinorUnits.applyCoefficient(deliveryCost,
+                MinorUnits.coefficient(tariffs.getCoefficient(deliveryServiceWorkload)), roundingMode);
 
-        return Math.max(deliveryCost, MIN_DELIVERY_PRICE);
+        return Math.max(deliveryCost, MinorUnits.fromMajor(tariffs.getMinDeliveryPrice()));
     }
 
     protected static double calculatePriceForDistance(Distance distance) {
-        return switch(distance) {
-            case OVER_30_KM -> OVER_30_KM_PRICE;
-            case LESS_30_KM -> LESS_30_KM_PRICE;
-            case LESS_10_KM -> LESS_10_KM_PRICE;
-            case LESS_2_KM -> LESS_2_KM_PRICE;
-        };
+        return getTariffSnapshot().getPrice(distance);
     }
 
     protected static double calculatePriceForCargoSize(CargoSize cargoSize) {
-        return switch(cargoSize) {
-            case LARGE_CARGO -> LARGE_CARGO_PRICE;
-            case SMALL_CARGO -> SMALL_CARGO_PRICE;
-        };
+        return getTariffSnapshot().getPrice(cargoSize);
     }
 
     protected static double calculatePriceForCargoFragility(CargoFragility cargoFragility) {
-        return cargoFragility == FRAGILE ? FRAGILE_PRICE : NOT_FRAGILE_PRICE;
+        return getTariffSnapshot().getPrice(cargoFragility);
     }
 
     protected static double getCoefficientForDeliveryServiceWorkload(DeliveryServiceWorkload deliveryServiceWorkload) {
-        return switch(deliveryServiceWorkload) {
-            case VERY_HIGH_WORKLOAD -> VERY_HIGH_WORKLOAD_COEFFICIENT;
-            case HIGH_WORKLOAD -> HIGH_WORKLOAD_COEFFICIENT;
-            case INCREASED_WORKLOAD -> INCREASED_WORKLOAD_COEFFICIENT;
-            default -> DEFAULT_COEFFICIENT;
-        };
-    }
-}
\ No newline at end of file
+        return getTariffSnapshot().getCoefficient(deliveryServiceWorkload);
+    }
+}
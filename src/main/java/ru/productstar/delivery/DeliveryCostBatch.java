@@ -0,0 +1,206 @@
+package ru.productstar.delivery;
+
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Пакетный расчет стоимости доставки по колонкам.
+ * <p>
+ * Параметры доставки передаются параллельными массивами (или {@link ByteBuffer}) порядковых номеров
+ * {@link Distance}, {@link CargoSize}, {@link CargoFragility} и {@link DeliveryServiceWorkload}.
+ * Для строки {@code i} стоимость записывается в {@code costs[i]}, а для запрещенных доставок
+ * в {@code costs[i]} пишется {@link TariffTable#FORBIDDEN} и выставляется бит {@code i} в {@code forbidden};
+ * для разрешенных бит сбрасывается, поэтому битовую карту можно переиспользовать между пакетами.
+ * Методы возвращают количество запрещенных строк. Вариант {@code calculateKopecks} заполняет {@code long[]}
+ * стоимостью в копейках и пишет {@link TariffTable#FORBIDDEN_KOPECKS} для запрещенных строк.
+ */
+public final class DeliveryCostBatch {
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int DISTANCES = Distance.values().length;
+    private static final int CARGO_SIZES = CargoSize.values().length;
+    private static final int CARGO_FRAGILITIES = CargoFragility.values().length;
+    private static final int WORKLOADS = DeliveryServiceWorkload.values().length;
+
+    private final TariffTable tariffTable;
+
+    public DeliveryCostBatch() {
+        this(DeliveryCost.getTariffTable());
+    }
+
+    public DeliveryCostBatch(TariffTable tariffTable) {
+        this.tariffTable = tariffTable;
+    }
+
+    public long getTariffVersion() {
+        return tariffTable.getVersion();
+    }
+
+    public int calculate(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                         double[] costs, long[] forbidden) {
+        checkSizes(distances.length, cargoSizes.length, cargoFragilities.length, workloads.length, costs.length, forbidden);
+        return calculateRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, 0, distances.length);
+    }
+
+    public int calculate(ByteBuffer distances, ByteBuffer cargoSizes, ByteBuffer cargoFragilities, ByteBuffer workloads,
+                         double[] costs, long[] forbidden) {
+        checkSizes(distances.remaining(), cargoSizes.remaining(), cargoFragilities.remaining(), workloads.remaining(),
+                costs.length, forbidden);
+        return calculateRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, 0, distances.remaining());
+    }
+
+    public int calculateKopecks(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                                long[] costs, long[] forbidden) {
+        checkSizes(distances.length, cargoSizes.length, cargoFragilities.length, workloads.length, costs.length, forbidden);
+        return calculateKopecksRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, 0, distances.length);
+    }
+
+    /**
+     * То же, что {@link #calculate(byte[], byte[], byte[], byte[], double[], long[])}, но большие пакеты
+     * делятся на части и считаются в {@code pool}.
+     */
+    public int calculateParallel(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                                 double[] costs, long[] forbidden, ForkJoinPool pool) {
+        checkSizes(distances.length, cargoSizes.length, cargoFragilities.length, workloads.length, costs.length, forbidden);
+        return pool.invoke(new BatchTask((from, to) ->
+                calculateRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, from, to),
+                0, distances.length));
+    }
+
+    public int calculateKopecksParallel(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                                        long[] costs, long[] forbidden, ForkJoinPool pool) {
+        checkSizes(distances.length, cargoSizes.length, cargoFragilities.length, workloads.length, costs.length, forbidden);
+        return pool.invoke(new BatchTask((from, to) ->
+                calculateKopecksRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, from, to),
+                0, distances.length));
+    }
+
+    public int calculateParallel(ByteBuffer distances, ByteBuffer cargoSizes, ByteBuffer cargoFragilities, ByteBuffer workloads,
+                                 double[] costs, long[] forbidden, ForkJoinPool pool) {
+        checkSizes(distances.remaining(), cargoSizes.remaining(), cargoFragilities.remaining(), workloads.remaining(),
+                costs.length, forbidden);
+        return pool.invoke(new BatchTask((from, to) ->
+                calculateRange(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden, from, to),
+                0, distances.remaining()));
+    }
+
+    private int calculateRange(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                               double[] costs, long[] forbidden, int from, int to) {
+        int forbiddenRows = 0;
+        for (int i = from; i < to; i++) {
+            double cost = tariffTable.cost(index(distances[i], cargoSizes[i], cargoFragilities[i], workloads[i]));
+            costs[i] = cost;
+            if (Double.isNaN(cost)) {
+                forbidden[i >>> 6] |= 1L << i;
+                forbiddenRows++;
+            } else {
+                forbidden[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return forbiddenRows;
+    }
+
+    private int calculateKopecksRange(byte[] distances, byte[] cargoSizes, byte[] cargoFragilities, byte[] workloads,
+                                      long[] costs, long[] forbidden, int from, int to) {
+        int forbiddenRows = 0;
+        for (int i = from; i < to; i++) {
+            long cost = tariffTable.costKopecks(index(distances[i], cargoSizes[i], cargoFragilities[i], workloads[i]));
+            costs[i] = cost;
+            if (cost == TariffTable.FORBIDDEN_KOPECKS) {
+                forbidden[i >>> 6] |= 1L << i;
+                forbiddenRows++;
+            } else {
+                forbidden[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return forbiddenRows;
+    }
+
+    private int calculateRange(ByteBuffer distances, ByteBuffer cargoSizes, ByteBuffer cargoFragilities, ByteBuffer workloads,
+                               double[] costs, long[] forbidden, int from, int to) {
+        int distancesStart = distances.position();
+        int cargoSizesStart = cargoSizes.position();
+        int cargoFragilitiesStart = cargoFragilities.position();
+        int workloadsStart = workloads.position();
+
+        int forbiddenRows = 0;
+        for (int i = from; i < to; i++) {
+            double cost = tariffTable.cost(index(
+                    distances.get(distancesStart + i),
+                    cargoSizes.get(cargoSizesStart + i),
+                    cargoFragilities.get(cargoFragilitiesStart + i),
+                    workloads.get(workloadsStart + i)));
+            costs[i] = cost;
+            if (Double.isNaN(cost)) {
+                forbidden[i >>> 6] |= 1L << i;
+                forbiddenRows++;
+            } else {
+                forbidden[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return forbiddenRows;
+    }
+
+    private static int index(byte distance, byte cargoSize, byte cargoFragility, byte workload) {
+        if (distance < 0 || distance >= DISTANCES
+                || cargoSize < 0 || cargoSize >= CARGO_SIZES
+                || cargoFragility < 0 || cargoFragility >= CARGO_FRAGILITIES
+                || workload < 0 || workload >= WORKLOADS) {
+            throw new IllegalArgumentException("invalid ordinal in delivery batch");
+        }
+        return TariffTable.index(distance, cargoSize, cargoFragility, workload);
+    }
+
+    public static boolean isForbidden(long[] forbidden, int row) {
+        return (forbidden[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public static int bitmapLength(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private static void checkSizes(int distances, int cargoSizes, int cargoFragilities, int workloads,
+                                   int costs, long[] forbidden) {
+        if (distances != cargoSizes || distances != cargoFragilities || distances != workloads) {
+            throw new IllegalArgumentException("batch columns must have the same length");
+        }
+        if (costs < distances || forbidden.length < bitmapLength(distances)) {
+            throw new IllegalArgumentException("result arrays are too small for " + distances + " rows");
+        }
+    }
+
+    private interface RangeCalculator {
+        int calculate(int from, int to);
+    }
+
+    private static final class BatchTask extends RecursiveTask<Integer> {
+        private final RangeCalculator calculator;
+        private final int from;
+        private final int to;
+
+        BatchTask(RangeCalculator calculator, int from, int to) {
+            this.calculator = calculator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return calculator.calculate(from, to);
+            }
+            // граница кратна 64, чтобы половины не писали в одно слово битовой карты
+            int middle = (from + (to - from) / 2) & ~63;
+            BatchTask left = new BatchTask(calculator, from, middle);
+            BatchTask right = new BatchTask(calculator, middle, to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
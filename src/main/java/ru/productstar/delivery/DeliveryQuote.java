@@ -0,0 +1,66 @@
+package ru.productstar.delivery;
+
+/**
+ * Стоимость доставки вместе с версией тарифов, по которой она посчитана.
+ * <p>
+ * Если доставка запрещена, вместо исключения возвращается котировка с причиной отказа
+ * и стоимостью {@link TariffTable#FORBIDDEN}. Котировки заранее создаются для каждой ячейки
+ * таблицы тарифов, поэтому ни расчет, ни отказ не создают новых объектов.
+ */
+public final class DeliveryQuote {
+    public enum Reason {
+        ACCEPTED(null),
+        FRAGILE_CARGO_OVER_30_KM("Хрупкие грузы нельзя возить на расстояние более 30 км.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final double cost;
+    private final long costKopecks;
+    private final long tariffVersion;
+    private final Reason reason;
+
+    DeliveryQuote(double cost, long costKopecks, long tariffVersion) {
+        this(cost, costKopecks, tariffVersion, Reason.ACCEPTED);
+    }
+
+    DeliveryQuote(double cost, long costKopecks, long tariffVersion, Reason reason) {
+        this.cost = cost;
+        this.costKopecks = costKopecks;
+        this.tariffVersion = tariffVersion;
+        this.reason = reason;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public long getCostKopecks() {
+        return costKopecks;
+    }
+
+    public long getTariffVersion() {
+        return tariffVersion;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public boolean isForbidden() {
+        return reason != Reason.ACCEPTED;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryQuote{cost=" + cost + ", costKopecks=" + costKopecks + ", tariffVersion=" + tariffVersion + ", reason=" + reason + '}';
+    }
+}
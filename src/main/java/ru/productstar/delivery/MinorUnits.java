@@ -0,0 +1,78 @@
+package ru.productstar.delivery;
+
+import java.math.RoundingMode;
+
+/**
+ * Денежные суммы в копейках ({@code long}) и целочисленная арифметика над ними.
+ * <p>
+ * Коэффициенты хранятся с фиксированным масштабом {@link #COEFFICIENT_SCALE}, поэтому умножение
+ * на коэффициент сводится к умножению и делению целых чисел с явно заданным округлением.
+ */
+public final class MinorUnits {
+    public static final long PER_MAJOR = 100;
+    public static final long COEFFICIENT_SCALE = 10_000;
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Переводит сумму в рублях в копейки. Сумма должна быть кратна копейке.
+     */
+    public static long fromMajor(double amount) {
+        double minor = amount * PER_MAJOR;
+        long rounded = Math.round(minor);
+        if (!Double.isFinite(minor) || Math.abs(minor - rounded) > 1e-6) {
+            throw new IllegalArgumentException("amount is not a whole number of kopecks: " + amount);
+        }
+        return rounded;
+    }
+
+    public static long fromMajor(long amount) {
+        return Math.multiplyExact(amount, PER_MAJOR);
+    }
+
+    /**
+     * Переводит коэффициент в целое число с масштабом {@link #COEFFICIENT_SCALE}.
+     */
+    public static long coefficient(double coefficient) {
+        double scaled = coefficient * COEFFICIENT_SCALE;
+        long rounded = Math.round(scaled);
+        if (!Double.isFinite(scaled) || Math.abs(scaled - rounded) > 1e-6) {
+            throw new IllegalArgumentException("coefficient has more than 4 decimal places: " + coefficient);
+        }
+        return rounded;
+    }
+
+    public static long applyCoefficient(long amount, long scaledCoefficient, RoundingMode roundingMode) {
+        return divide(Math.multiplyExact(amount, scaledCoefficient), COEFFICIENT_SCALE, roundingMode);
+    }
+
+    /**
+     * Целочисленное деление с округлением по правилам {@link RoundingMode}, без {@code BigDecimal}.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int signum = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        int half = Long.compare(Math.abs(remainder), Math.abs(divisor) - Math.abs(remainder));
+        boolean increment = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("rounding necessary for " + dividend + " / " + divisor);
+        };
+        return increment ? quotient + signum : quotient;
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / PER_MAJOR;
+    }
+}
@@ -0,0 +1,159 @@
+package ru.productstar.delivery;
+
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static ru.productstar.delivery.dicts.DeliveryCostCoefficients.*;
+import static ru.productstar.delivery.dicts.DeliveryPrices.*;
+
+/**
+ * Неизменяемый набор тарифов доставки с номером версии.
+ * <p>
+ * Цены хранятся в массивах по порядковым номерам перечислений. Снимок можно загрузить из properties-файла,
+ * ключи в котором совпадают с именами констант из {@code DeliveryPrices} и {@code DeliveryCostCoefficients};
+ * отсутствующие ключи берутся из значений по умолчанию. Ключ {@code version} задает номер версии.
+ */
+public final class TariffSnapshot {
+    public static final String VERSION_KEY = "version";
+
+    private final long version;
+    private final double minDeliveryPrice;
+    private final double[] distancePrices;
+    private final double[] cargoSizePrices;
+    private final double[] cargoFragilityPrices;
+    private final double[] workloadCoefficients;
+
+    private TariffSnapshot(long version,
+                           double minDeliveryPrice,
+                           double[] distancePrices,
+                           double[] cargoSizePrices,
+                           double[] cargoFragilityPrices,
+                           double[] workloadCoefficients) {
+        this.version = version;
+        this.minDeliveryPrice = minDeliveryPrice;
+        this.distancePrices = distancePrices;
+        this.cargoSizePrices = cargoSizePrices;
+        this.cargoFragilityPrices = cargoFragilityPrices;
+        this.workloadCoefficients = workloadCoefficients;
+    }
+
+    /**
+     * Тарифы по умолчанию из {@code DeliveryPrices} и {@code DeliveryCostCoefficients}, версия 1.
+     */
+    public static TariffSnapshot defaults() {
+        return fromProperties(new Properties(), 1);
+    }
+
+    public static TariffSnapshot load(Path path, long defaultVersion) throws IOException {
+        return fromProperties(loadProperties(path), defaultVersion);
+    }
+
+    static Properties loadProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    public static TariffSnapshot fromProperties(Properties properties, long defaultVersion) {
+        long version = properties.containsKey(VERSION_KEY)
+                ? Long.parseLong(properties.getProperty(VERSION_KEY).trim())
+                : defaultVersion;
+
+        double[] distancePrices = new double[Distance.values().length];
+        distancePrices[Distance.LESS_2_KM.ordinal()] = price(properties, "LESS_2_KM_PRICE", LESS_2_KM_PRICE);
+        distancePrices[Distance.LESS_10_KM.ordinal()] = price(properties, "LESS_10_KM_PRICE", LESS_10_KM_PRICE);
+        distancePrices[Distance.LESS_30_KM.ordinal()] = price(properties, "LESS_30_KM_PRICE", LESS_30_KM_PRICE);
+        distancePrices[Distance.OVER_30_KM.ordinal()] = price(properties, "OVER_30_KM_PRICE", OVER_30_KM_PRICE);
+
+        double[] cargoSizePrices = new double[CargoSize.values().length];
+        cargoSizePrices[CargoSize.LARGE_CARGO.ordinal()] = price(properties, "LARGE_CARGO_PRICE", LARGE_CARGO_PRICE);
+        cargoSizePrices[CargoSize.SMALL_CARGO.ordinal()] = price(properties, "SMALL_CARGO_PRICE", SMALL_CARGO_PRICE);
+
+        double[] cargoFragilityPrices = new double[CargoFragility.values().length];
+        cargoFragilityPrices[CargoFragility.FRAGILE.ordinal()] = price(properties, "FRAGILE_PRICE", FRAGILE_PRICE);
+        cargoFragilityPrices[CargoFragility.NOT_FRAGILE.ordinal()] = price(properties, "NOT_FRAGILE_PRICE", NOT_FRAGILE_PRICE);
+
+        double defaultCoefficient = coefficient(properties, "DEFAULT_COEFFICIENT", DEFAULT_COEFFICIENT);
+        double[] workloadCoefficients = new double[DeliveryServiceWorkload.values().length];
+        workloadCoefficients[DeliveryServiceWorkload.VERY_HIGH_WORKLOAD.ordinal()] =
+                coefficient(properties, "VERY_HIGH_WORKLOAD_COEFFICIENT", VERY_HIGH_WORKLOAD_COEFFICIENT);
+        workloadCoefficients[DeliveryServiceWorkload.HIGH_WORKLOAD.ordinal()] =
+                coefficient(properties, "HIGH_WORKLOAD_COEFFICIENT", HIGH_WORKLOAD_COEFFICIENT);
+        workloadCoefficients[DeliveryServiceWorkload.INCREASED_WORKLOAD.ordinal()] =
+                coefficient(properties, "INCREASED_WORKLOAD_COEFFICIENT", INCREASED_WORKLOAD_COEFFICIENT);
+        workloadCoefficients[DeliveryServiceWorkload.REGULAR_WORKLOAD.ordinal()] = defaultCoefficient;
+        workloadCoefficients[DeliveryServiceWorkload.LOW_WORKLOAD.ordinal()] = defaultCoefficient;
+
+        return new TariffSnapshot(version,
+                price(properties, "MIN_DELIVERY_PRICE", MIN_DELIVERY_PRICE),
+                distancePrices,
+                cargoSizePrices,
+                cargoFragilityPrices,
+                workloadCoefficients);
+    }
+
+    private static double price(Properties properties, String key, double defaultValue) {
+        double value = value(properties, key, defaultValue);
+        if (value < 0) {
+            throw new IllegalArgumentException(key + " must not be negative: " + value);
+        }
+        MinorUnits.fromMajor(value);
+        return value;
+    }
+
+    private static double coefficient(Properties properties, String key, double defaultValue) {
+        double value = value(properties, key, defaultValue);
+        if (value <= 0) {
+            throw new IllegalArgumentException(key + " must be positive: " + value);
+        }
+        MinorUnits.coefficient(value);
+        return value;
+    }
+
+    private static double value(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        double parsed = Double.parseDouble(value.trim());
+        if (!Double.isFinite(parsed)) {
+            throw new IllegalArgumentException(key + " must be a finite number: " + value);
+        }
+        return parsed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getMinDeliveryPrice() {
+        return minDeliveryPrice;
+    }
+
+    public double getPrice(Distance distance) {
+        return distancePrices[distance.ordinal()];
+    }
+
+    public double getPrice(CargoSize cargoSize) {
+        return cargoSizePrices[cargoSize.ordinal()];
+    }
+
+    public double getPrice(CargoFragility cargoFragility) {
+        return cargoFragilityPrices[cargoFragility.ordinal()];
+    }
+
+    public double getCoefficient(DeliveryServiceWorkload deliveryServiceWorkload) {
+        return workloadCoefficients[deliveryServiceWorkload.ordinal()];
+    }
+}
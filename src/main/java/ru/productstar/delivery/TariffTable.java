@@ -0,0 +1,146 @@
+package ru.productstar.delivery;
+
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.math.RoundingMode;
+
+/**
+ * Заранее посчитанная стоимость доставки для всех комбинаций параметров.
+ * <p>
+ * Таблица плоская и индексируется порядковыми номерами {@link Distance}, {@link CargoSize},
+ * {@link CargoFragility} и {@link DeliveryServiceWorkload}. Запрещенные комбинации хранятся
+ * в таблице как {@link #FORBIDDEN}, поэтому расчет стоимости сводится к одному чтению из массива.
+ * Рядом хранится та же стоимость в копейках, посчитанная целочисленно с заданным округлением.
+ */
+public final class TariffTable {
+    public static final double FORBIDDEN = Double.NaN;
+    public static final long FORBIDDEN_KOPECKS = -1;
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_UP;
+
+    private static final Distance[] DISTANCES = Distance.values();
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final CargoFragility[] CARGO_FRAGILITIES = CargoFragility.values();
+    private static final DeliveryServiceWorkload[] WORKLOADS = DeliveryServiceWorkload.values();
+
+    public static final int SIZE = DISTANCES.length * CARGO_SIZES.length * CARGO_FRAGILITIES.length * WORKLOADS.length;
+
+    private final TariffSnapshot snapshot;
+    private final RoundingMode roundingMode;
+    private final double[] costs;
+    private final long[] costsKopecks;
+    private final DeliveryQuote[] quotes;
+
+    private TariffTable(TariffSnapshot snapshot, RoundingMode roundingMode,
+                        double[] costs, long[] costsKopecks, DeliveryQuote[] quotes) {
+        this.snapshot = snapshot;
+        this.roundingMode = roundingMode;
+        this.costs = costs;
+        this.costsKopecks = costsKopecks;
+        this.quotes = quotes;
+    }
+
+    /**
+     * Собирает таблицу по ценам из снимка тарифов.
+     * Каждая ячейка считается той же формулой, что и {@link DeliveryCost#calculateDeliveryCost}.
+     */
+    public static TariffTable compile(TariffSnapshot snapshot) {
+        return compile(snapshot, DEFAULT_ROUNDING);
+    }
+
+    /**
+     * Собирает таблицу по ценам из снимка тарифов; стоимость в копейках округляется по {@code roundingMode}.
+     */
+    public static TariffTable compile(TariffSnapshot snapshot, RoundingMode roundingMode) {
+        double[] costs = new double[SIZE];
+        long[] costsKopecks = new long[SIZE];
+        DeliveryQuote[] quotes = new DeliveryQuote[SIZE];
+        for (Distance distance : DISTANCES) {
+            for (CargoSize cargoSize : CARGO_SIZES) {
+                for (CargoFragility cargoFragility : CARGO_FRAGILITIES) {
+                    for (DeliveryServiceWorkload workload : WORKLOADS) {
+                        int index = index(distance, cargoSize, cargoFragility, workload);
+                        DeliveryQuote.Reason reason = DeliveryCost.checkDelivery(distance, cargoFragility);
+                        if (reason != DeliveryQuote.Reason.ACCEPTED) {
+                            costs[index] = FORBIDDEN;
+                            costsKopecks[index] = FORBIDDEN_KOPECKS;
+                            quotes[index] = new DeliveryQuote(FORBIDDEN, FORBIDDEN_KOPECKS, snapshot.getVersion(), reason);
+                        } else {
+                            costs[index] = DeliveryCost.computeDeliveryCost(snapshot, distance, cargoSize, cargoFragility, workload);
+                            costsKopecks[index] = DeliveryCost.computeDeliveryCostKopecks(snapshot, roundingMode,
+                                    distance, cargoSize, cargoFragility, workload);
+                            quotes[index] = new DeliveryQuote(costs[index], costsKopecks[index], snapshot.getVersion());
+                        }
+                    }
+                }
+            }
+        }
+        return new TariffTable(snapshot, roundingMode, costs, costsKopecks, quotes);
+    }
+
+    public TariffSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    public static int index(Distance distance,
+                            CargoSize cargoSize,
+                            CargoFragility cargoFragility,
+                            DeliveryServiceWorkload deliveryServiceWorkload) {
+        return index(distance.ordinal(), cargoSize.ordinal(), cargoFragility.ordinal(), deliveryServiceWorkload.ordinal());
+    }
+
+    public static int index(int distance, int cargoSize, int cargoFragility, int deliveryServiceWorkload) {
+        return ((distance * CARGO_SIZES.length + cargoSize) * CARGO_FRAGILITIES.length + cargoFragility)
+                * WORKLOADS.length + deliveryServiceWorkload;
+    }
+
+    /**
+     * Стоимость доставки по индексу ячейки или {@link #FORBIDDEN}, если доставка запрещена.
+     */
+    public double cost(int index) {
+        return costs[index];
+    }
+
+    /**
+     * Стоимость доставки в копейках по индексу ячейки или {@link #FORBIDDEN_KOPECKS}, если доставка запрещена.
+     */
+    public long costKopecks(int index) {
+        return costsKopecks[index];
+    }
+
+    public boolean isForbidden(int index) {
+        return Double.isNaN(costs[index]);
+    }
+
+    public double calculateDeliveryCost(Distance distance,
+                                        CargoSize cargoSize,
+                                        CargoFragility cargoFragility,
+                                        DeliveryServiceWorkload deliveryServiceWorkload) {
+        DeliveryQuote quote = quote(distance, cargoSize, cargoFragility, deliveryServiceWorkload);
+        if (quote.isForbidden()) {
+            throw new DeliveryIsForbiddenException(quote.getReason().getMessage());
+        }
+        return quote.getCost();
+    }
+
+    /**
+     * Котировка для ячейки таблицы. Для запрещенной доставки возвращается котировка с причиной отказа,
+     * исключение не выбрасывается.
+     */
+    public DeliveryQuote quote(Distance distance,
+                               CargoSize cargoSize,
+                               CargoFragility cargoFragility,
+                               DeliveryServiceWorkload deliveryServiceWorkload) {
+        return quotes[index(distance, cargoSize, cargoFragility, deliveryServiceWorkload)];
+    }
+}
@@ -0,0 +1,147 @@
+package ru.productstar.delivery;
+
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.*;
+
+/**
+ * Загруженность службы доставки, посчитанная по фактическому потоку заказов.
+ * <p>
+ * События складываются в кольцо корзин скользящего окна. В кольце на одну корзину больше, чем в окне: текущая,
+ * еще не завершенная корзина не вытесняет самую старую из окна. Каждая корзина — это {@link LongAdder},
+ * поэтому запись не блокирует и не сериализует поток заказов. Раз в период корзины поток заказов
+ * пересчитывается в уровень {@link DeliveryServiceWorkload} по порогам (событий в секунду) с гистерезисом:
+ * уровень повышается, как только поток достигает порога, а понижается, только когда поток опускается
+ * ниже порога, уменьшенного на долю {@code hysteresis}. Текущий уровень читается за O(1).
+ */
+public class WorkloadMeter {
+    private static final DeliveryServiceWorkload[] LEVELS = {
+            LOW_WORKLOAD, REGULAR_WORKLOAD, INCREASED_WORKLOAD, HIGH_WORKLOAD, VERY_HIGH_WORKLOAD
+    };
+
+    private final LongSupplier clock;
+    private final long bucketNanos;
+    private final int bucketCount;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final double[] thresholds;
+    private final double hysteresis;
+
+    private final AtomicLong refreshedEpoch = new AtomicLong(Long.MIN_VALUE);
+    private volatile int level;
+
+    /**
+     * @param window     длина скользящего окна
+     * @param bucketCount количество корзин в окне
+     * @param thresholds пороги в событиях в секунду для уровней REGULAR, INCREASED, HIGH и VERY_HIGH по возрастанию
+     * @param hysteresis доля порога от 0 до 1, на которую поток должен опуститься ниже порога для понижения уровня
+     */
+    public WorkloadMeter(Duration window, int bucketCount, double[] thresholds, double hysteresis) {
+        this(window, bucketCount, thresholds, hysteresis, System::nanoTime);
+    }
+
+    WorkloadMeter(Duration window, int bucketCount, double[] thresholds, double hysteresis, LongSupplier clock) {
+        if (bucketCount < 1 || window.toNanos() < bucketCount) {
+            throw new IllegalArgumentException("window must be split into at least one bucket");
+        }
+        if (thresholds.length != LEVELS.length - 1) {
+            throw new IllegalArgumentException("expected " + (LEVELS.length - 1) + " thresholds");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] < thresholds[i - 1]) {
+                throw new IllegalArgumentException("thresholds must be ascending");
+            }
+        }
+        if (hysteresis < 0 || hysteresis >= 1) {
+            throw new IllegalArgumentException("hysteresis must be in [0, 1)");
+        }
+
+        this.clock = clock;
+        this.bucketNanos = window.toNanos() / bucketCount;
+        this.bucketCount = bucketCount;
+        this.buckets = new AtomicReferenceArray<>(bucketCount + 1);
+        this.thresholds = thresholds.clone();
+        this.hysteresis = hysteresis;
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, new Bucket(Long.MIN_VALUE));
+        }
+    }
+
+    public void record() {
+        record(1);
+    }
+
+    public void record(long events) {
+        long epoch = epoch();
+        int slot = slot(epoch);
+        Bucket bucket = buckets.get(slot);
+        if (bucket.epoch != epoch) {
+            Bucket fresh = new Bucket(epoch);
+            bucket = buckets.compareAndSet(slot, bucket, fresh) ? fresh : buckets.get(slot);
+        }
+        bucket.count.add(events);
+    }
+
+    public DeliveryServiceWorkload currentWorkload() {
+        long epoch = epoch();
+        long refreshed = refreshedEpoch.get();
+        if (refreshed != epoch && refreshedEpoch.compareAndSet(refreshed, epoch)) {
+            level = nextLevel(level, ratePerSecond(epoch));
+        }
+        return LEVELS[level];
+    }
+
+    /**
+     * Поток событий в секунду по завершенным корзинам окна.
+     */
+    public double ratePerSecond() {
+        return ratePerSecond(epoch());
+    }
+
+    private double ratePerSecond(long epoch) {
+        long events = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.epoch < epoch && bucket.epoch >= epoch - bucketCount) {
+                events += bucket.count.sum();
+            }
+        }
+        return events * 1e9 / ((double) bucketNanos * bucketCount);
+    }
+
+    private int nextLevel(int current, double rate) {
+        int raised = 0;
+        int lowered = 0;
+        for (double threshold : thresholds) {
+            if (rate >= threshold) {
+                raised++;
+            }
+            if (rate >= threshold * (1 - hysteresis)) {
+                lowered++;
+            }
+        }
+        return raised > current ? raised : Math.min(current, lowered);
+    }
+
+    private long epoch() {
+        return Math.floorDiv(clock.getAsLong(), bucketNanos);
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length());
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder count = new LongAdder();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
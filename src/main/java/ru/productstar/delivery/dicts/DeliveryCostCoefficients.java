@@ -1,8 +1,8 @@
 package ru.productstar.delivery.dicts;
 
 public abstract class DeliveryCostCoefficients {
-    public static double VERY_HIGH_WORKLOAD_COEFFICIENT = 1.6;
-    public static double HIGH_WORKLOAD_COEFFICIENT = 1.4;
-    public static double INCREASED_WORKLOAD_COEFFICIENT = 1.2;
-    public static double DEFAULT_COEFFICIENT = 1;
+    public static final double VERY_HIGH_WORKLOAD_COEFFICIENT = 1.6;
+    public static final double HIGH_WORKLOAD_COEFFICIENT = 1.4;
+    public static final double INCREASED_WORKLOAD_COEFFICIENT = 1.2;
+    public static final double DEFAULT_COEFFICIENT = 1;
 }
\ No newline at end of file
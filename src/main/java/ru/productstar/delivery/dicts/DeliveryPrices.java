@@ -1,16 +1,16 @@
 package ru.productstar.delivery.dicts;
 
 public abstract class DeliveryPrices {
-    public static double MIN_DELIVERY_PRICE = 400.00;
+    public static final double MIN_DELIVERY_PRICE = 400.00;
 
-    public static double OVER_30_KM_PRICE = 300.00;
-    public static double LESS_30_KM_PRICE = 200.00;
-    public static double LESS_10_KM_PRICE = 100.00;
-    public static double LESS_2_KM_PRICE = 50.00;
+    public static final double OVER_30_KM_PRICE = 300.00;
+    public static final double LESS_30_KM_PRICE = 200.00;
+    public static final double LESS_10_KM_PRICE = 100.00;
+    public static final double LESS_2_KM_PRICE = 50.00;
 
-    public static double LARGE_CARGO_PRICE = 200.00;
-    public static double SMALL_CARGO_PRICE = 100.00;
+    public static final double LARGE_CARGO_PRICE = 200.00;
+    public static final double SMALL_CARGO_PRICE = 100.00;
 
-    public static double FRAGILE_PRICE = 300.00;
-    public static double NOT_FRAGILE_PRICE = 0.00;
+    public static final double FRAGILE_PRICE = 300.00;
+    public static final double NOT_FRAGILE_PRICE = 0.00;
 }
\ No newline at end of file
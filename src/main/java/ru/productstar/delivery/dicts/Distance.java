@@ -1,5 +1,17 @@
 package ru.productstar.delivery.dicts;
 
 public enum Distance {
-    LESS_2_KM, LESS_10_KM, LESS_30_KM, OVER_30_KM
+    LESS_2_KM, LESS_10_KM, LESS_30_KM, OVER_30_KM;
+
+    public static Distance ofKilometers(int kilometers) {
+        if (kilometers < 2) {
+            return LESS_2_KM;
+        } else if (kilometers < 10) {
+            return LESS_10_KM;
+        } else if (kilometers < 30) {
+            return LESS_30_KM;
+        } else {
+            return OVER_30_KM;
+        }
+    }
 }
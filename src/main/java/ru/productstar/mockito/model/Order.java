@@ -1,13 +1,29 @@
 package ru.productstar.mockito.model;
 
-import java.util.ArrayList;
+import ru.productstar.delivery.MinorUnits;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Заказ, в который позиции можно добавлять из нескольких потоков без блокировок.
+ * <p>
+ * Позиции хранятся неизменяемым односвязным списком, новая позиция добавляется в голову через CAS;
+ * {@link #getDeliveries()} возвращает неизменяемый снимок всех позиций, добавленных к моменту вызова.
+ * Сумма заказа и стоимость доставки копятся в {@link LongAdder}, чтобы потоки не боролись за одну ячейку.
+ */
 public class Order {
     private int id;
     private Customer customer;
-    private List<Delivery> deliveries = new ArrayList<>();
-    private long total;
+    private final AtomicReference<Node> deliveries = new AtomicReference<>();
+    private final ConcurrentMap<Warehouse, Shipment> shipments = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder deliveryFee = new LongAdder();
 
     public Order(Customer customer) {
         this.customer = customer;
@@ -18,9 +34,24 @@ public class Order {
     }
 
     public long addDelivery(Delivery delivery) {
-        deliveries.add(delivery);
-        total = total + delivery.getPrice() * delivery.getCount();
-        return total;
+        return addDelivery(delivery, DeliveryServiceWorkload.REGULAR_WORKLOAD);
+    }
+
+    /**
+     * @param workload загруженность службы доставки, по которой пересчитывается стоимость доставки отправки
+     * @return сумма заказа сразу после добавления позиции; при одновременных добавлениях может уже включать
+     * позиции других потоков
+     */
+    public long addDelivery(Delivery delivery, DeliveryServiceWorkload workload) {
+        Node head;
+        do {
+            head = deliveries.get();
+        } while (!deliveries.compareAndSet(head, new Node(delivery, head)));
+        total.add((long) delivery.getPrice() * delivery.getCount());
+
+        Shipment shipment = shipments.computeIfAbsent(delivery.getWarehouse(), Shipment::new);
+        deliveryFee.add(shipment.add(delivery, workload));
+        return total.sum();
     }
 
     public int getId() {
@@ -31,11 +62,52 @@ public class Order {
         return customer;
     }
 
+    /**
+     * Неизменяемый снимок позиций в порядке добавления.
+     */
     public List<Delivery> getDeliveries() {
-        return deliveries;
+        Node head = deliveries.get();
+        Delivery[] snapshot = new Delivery[head == null ? 0 : head.size];
+        for (Node node = head; node != null; node = node.next) {
+            snapshot[node.size - 1] = node.delivery;
+        }
+        return List.of(snapshot);
     }
 
+    /**
+     * Стоимость товаров заказа в рублях.
+     */
     public long getTotal() {
-        return total;
+        return total.sum();
+    }
+
+    /**
+     * Стоимость товаров заказа в копейках, в тех же единицах, что и {@link #getDeliveryFeeKopecks()}.
+     */
+    public long getTotalKopecks() {
+        return MinorUnits.fromMajor(getTotal());
+    }
+
+    public Collection<Shipment> getShipments() {
+        return shipments.values();
+    }
+
+    /**
+     * Суммарная стоимость доставки всех отправок заказа в копейках.
+     */
+    public long getDeliveryFeeKopecks() {
+        return deliveryFee.sum();
+    }
+
+    private static final class Node {
+        private final Delivery delivery;
+        private final Node next;
+        private final int size;
+
+        private Node(Delivery delivery, Node next) {
+            this.delivery = delivery;
+            this.next = next;
+            this.size = next == null ? 1 : next.size + 1;
+        }
     }
 }
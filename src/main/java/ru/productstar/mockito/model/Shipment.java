@@ -0,0 +1,87 @@
+package ru.productstar.mockito.model;
+
+import ru.productstar.delivery.DeliveryCost;
+import ru.productstar.delivery.MinorUnits;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static ru.productstar.delivery.dicts.CargoFragility.NOT_FRAGILE;
+
+/**
+ * Все позиции заказа, которые везут с одного склада.
+ * <p>
+ * Стоимость доставки (в копейках) пересчитывается при каждом добавлении позиции по загруженности службы
+ * доставки на этот момент; груз считается
+ * крупногабаритным, если в отправке больше {@link #LARGE_CARGO_UNITS} единиц товара. Позиции можно добавлять
+ * из нескольких потоков: количество, сумма и стоимость доставки хранятся одним неизменяемым снимком,
+ * который заменяется через CAS, поэтому они всегда согласованы между собой.
+ */
+public class Shipment {
+    public static final int LARGE_CARGO_UNITS = 10;
+
+    private final Warehouse warehouse;
+    private final Distance distance;
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+
+    public Shipment(Warehouse warehouse) {
+        this.warehouse = warehouse;
+        this.distance = Distance.ofKilometers(warehouse.getDistance());
+    }
+
+    /**
+     * @param workload загруженность службы доставки, по которой пересчитывается стоимость доставки
+     * @return на сколько изменилась стоимость доставки отправки
+     */
+    long add(Delivery delivery, DeliveryServiceWorkload workload) {
+        while (true) {
+            State current = state.get();
+            int units = current.units() + delivery.getCount();
+            long total = current.total() + (long) delivery.getPrice() * delivery.getCount();
+            long deliveryFee = DeliveryCost.calculateDeliveryCostKopecks(distance, cargoSize(units), NOT_FRAGILE, workload);
+            if (state.compareAndSet(current, new State(units, total, deliveryFee))) {
+                return deliveryFee - current.deliveryFee();
+            }
+        }
+    }
+
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+
+    public Distance getDistance() {
+        return distance;
+    }
+
+    public CargoSize getCargoSize() {
+        return cargoSize(state.get().units());
+    }
+
+    public int getUnits() {
+        return state.get().units();
+    }
+
+    /**
+     * Стоимость товаров отправки в рублях.
+     */
+    public long getTotal() {
+        return state.get().total();
+    }
+
+    public long getTotalKopecks() {
+        return MinorUnits.fromMajor(getTotal());
+    }
+
+    public long getDeliveryFeeKopecks() {
+        return state.get().deliveryFee();
+    }
+
+    private static CargoSize cargoSize(int units) {
+        return units > LARGE_CARGO_UNITS ? CargoSize.LARGE_CARGO : CargoSize.SMALL_CARGO;
+    }
+
+    private record State(int units, long total, long deliveryFee) {
+    }
+}
@@ -1,13 +1,16 @@
 package ru.productstar.mockito.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Склад. Остатки хранятся неизменяемым списком, который при добавлении остатка заменяется новым
+ * (copy-on-write), поэтому {@link #getStocks()} можно обходить из любых потоков без блокировок.
+ */
 public class Warehouse {
     private int id;
     private String name;
     private int distance;
-    private List<Stock> stocks = new ArrayList<>();
+    private volatile List<Stock> stocks = List.of();
 
     public Warehouse() {
     }
@@ -17,8 +20,11 @@ public class Warehouse {
         this.distance = distance;
     }
 
-    public boolean addStock(Stock stock) {
-        return stocks.add(stock);
+    public synchronized boolean addStock(Stock stock) {
+        Stock[] next = stocks.toArray(new Stock[stocks.size() + 1]);
+        next[next.length - 1] = stock;
+        stocks = List.of(next);
+        return true;
     }
 
     public void setId(int id) {
@@ -37,6 +43,9 @@ public class Warehouse {
         return distance;
     }
 
+    /**
+     * Неизменяемый снимок остатков; один и тот же объект до следующего {@link #addStock(Stock)}.
+     */
     public List<Stock> getStocks() {
         return stocks;
     }
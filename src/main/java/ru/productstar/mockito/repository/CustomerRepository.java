@@ -3,10 +3,25 @@ package ru.productstar.mockito.repository;
 import ru.productstar.mockito.model.Customer;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Потокобезопасный реестр покупателей.
+ * <p>
+ * Поиск по имени не блокирует и находит первого зарегистрированного покупателя с этим именем.
+ * {@link #add(Customer)} всегда регистрирует покупателя с новым id, как и раньше. {@link #getOrAdd(Customer)}
+ * атомарно регистрирует покупателя, только если покупателя с таким именем еще нет, иначе возвращает уже
+ * зарегистрированного: одновременные регистрации одного имени через него не создают дублей. Id выдаются
+ * счетчиком {@link AtomicInteger} подряд, без пропусков и повторов.
+ */
 public class CustomerRepository {
-    private List<Customer> customers = new ArrayList<>();
+    private final ConcurrentMap<String, Customer> byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Customer> byId = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
 
     public CustomerRepository() {
         add(new Customer("Ivan"));
@@ -14,21 +29,47 @@ public class CustomerRepository {
         add(new Customer("Alex"));
     }
 
+    /**
+     * Регистрирует {@code customer} с новым id, даже если покупатель с таким именем уже есть.
+     *
+     * @return {@code customer}
+     */
     public Customer add(Customer customer) {
-        customer.setId(customers.size());
-        customers.add(customer);
+        register(customer);
+        byName.putIfAbsent(customer.getName(), customer);
         return customer;
     }
 
+    /**
+     * @return ранее зарегистрированный покупатель с тем же именем, а если его нет — {@code customer} с новым id;
+     * в первом случае {@code customer} не регистрируется и id не получает
+     */
+    public Customer getOrAdd(Customer customer) {
+        return byName.computeIfAbsent(customer.getName(), name -> {
+            register(customer);
+            return customer;
+        });
+    }
+
+    private void register(Customer customer) {
+        customer.setId(nextId.getAndIncrement());
+        byId.put(customer.getId(), customer);
+    }
+
     public Customer getByName(String name) {
-        return customers.stream().filter(c -> c.getName().equals(name)).findFirst().orElse(null);
+        return byName.get(name);
     }
 
+    /**
+     * Снимок всех покупателей в порядке id.
+     */
     public List<Customer> all() {
-        return customers;
+        List<Customer> all = new ArrayList<>(byId.values());
+        all.sort(Comparator.comparingInt(Customer::getId));
+        return all;
     }
 
     public int size() {
-        return customers.size();
+        return byId.size();
     }
 }
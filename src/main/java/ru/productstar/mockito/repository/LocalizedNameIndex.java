@@ -0,0 +1,33 @@
+package ru.productstar.mockito.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Локализованные названия товаров по id товара.
+ * <p>
+ * Заполняется задачей локализации каталога; товары, для которых название уже есть, при повторном запуске
+ * пропускаются, поэтому прерванная локализация продолжается с того места, где остановилась.
+ */
+public class LocalizedNameIndex {
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public void put(int productId, String localizedName) {
+        names.put(productId, localizedName);
+    }
+
+    /**
+     * @return локализованное название или {@code null}, если товар еще не локализован
+     */
+    public String get(int productId) {
+        return names.get(productId);
+    }
+
+    public boolean contains(int productId) {
+        return names.containsKey(productId);
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
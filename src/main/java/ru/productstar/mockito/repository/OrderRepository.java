@@ -1,31 +1,129 @@
 package ru.productstar.mockito.repository;
 
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
 import ru.productstar.mockito.model.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Потокобезопасное хранилище заказов, в которое заказы только добавляются.
+ * <p>
+ * Id выдаются атомарным счетчиком. Заказ с id {@code n} лежит в сегменте, номер которого вычисляется по старшему
+ * биту {@code n}: каждый следующий сегмент вдвое больше предыдущего, поэтому 27 сегментов хватает на любой
+ * {@code int}, а заполненные сегменты никогда не копируются. Сегменты создаются по мере надобности через CAS,
+ * запись и чтение заказа — без блокировок.
+ */
 public class OrderRepository {
-    private List<Order> orders = new ArrayList<>();
+    private static final int FIRST_SEGMENT_BITS = 5;
+    private static final int FIRST_SEGMENT_SIZE = 1 << FIRST_SEGMENT_BITS;
+    private static final int SEGMENTS = Integer.SIZE - FIRST_SEGMENT_BITS;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<Order>> segments = new AtomicReferenceArray<>(SEGMENTS);
+    private final AtomicInteger nextId = new AtomicInteger();
 
     public Order create(Customer customer) {
         Order order = new Order(customer);
-        order.setId(orders.size());
-        orders.add(order);
+        int id = nextId.getAndIncrement();
+        if (id < 0) {
+            throw new IllegalStateException("order ids exhausted");
+        }
+        order.setId(id);
+
+        long position = (long) id + FIRST_SEGMENT_SIZE;
+        segment(segmentIndex(position)).set(segmentOffset(position), order);
         return order;
     }
 
     public Order addDelivery(int orderId, Delivery delivery) {
-        Order order = orders.get(orderId);
+        Order order = getById(orderId);
         order.addDelivery(delivery);
         return order;
     }
 
+    public Order addDelivery(int orderId, Delivery delivery, DeliveryServiceWorkload workload) {
+        Order order = getById(orderId);
+        order.addDelivery(delivery, workload);
+        return order;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException если заказа с таким id нет или он еще не создан до конца
+     */
+    public Order getById(int orderId) {
+        if (orderId < 0 || orderId >= nextId.get()) {
+            throw new IndexOutOfBoundsException("Order id " + orderId + " out of bounds for size " + size());
+        }
+        long position = (long) orderId + FIRST_SEGMENT_SIZE;
+        AtomicReferenceArray<Order> segment = segments.get(segmentIndex(position));
+        Order order = segment == null ? null : segment.get(segmentOffset(position));
+        if (order == null) {
+            throw new IndexOutOfBoundsException("Order " + orderId + " is not created yet");
+        }
+        return order;
+    }
+
+    /**
+     * Снимок созданных заказов в порядке id. Заказы, которые в этот момент создаются в других потоках,
+     * могут в него не попасть.
+     */
     public List<Order> all() {
-        return orders;
+        int size = size();
+        List<Order> all = new ArrayList<>(size);
+        for (int segmentIndex = 0; segmentIndex < SEGMENTS; segmentIndex++) {
+            long first = ((long) FIRST_SEGMENT_SIZE << segmentIndex) - FIRST_SEGMENT_SIZE;
+            if (first >= size) {
+                break;
+            }
+            AtomicReferenceArray<Order> segment = segments.get(segmentIndex);
+            if (segment == null) {
+                continue;
+            }
+            int length = (int) Math.min(segment.length(), size - first);
+            for (int i = 0; i < length; i++) {
+                Order order = segment.get(i);
+                if (order != null) {
+                    all.add(order);
+                }
+            }
+        }
+        return all;
     }
 
+    /**
+     * Количество выданных id.
+     */
     public int size() {
-        return orders.size();
+        int size = nextId.get();
+        return size < 0 ? Integer.MAX_VALUE : size;
+    }
+
+    private AtomicReferenceArray<Order> segment(int segmentIndex) {
+        AtomicReferenceArray<Order> segment = segments.get(segmentIndex);
+        if (segment == null) {
+            AtomicReferenceArray<Order> created = new AtomicReferenceArray<>(segmentLength(segmentIndex));
+            segment = segments.compareAndExchange(segmentIndex, null, created);
+            if (segment == null) {
+                segment = created;
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Последнему сегменту нужно место только для id до {@link Integer#MAX_VALUE}.
+     */
+    private static int segmentLength(int segmentIndex) {
+        return segmentIndex == SEGMENTS - 1 ? FIRST_SEGMENT_SIZE : FIRST_SEGMENT_SIZE << segmentIndex;
+    }
+
+    private static int segmentIndex(long position) {
+        return 63 - Long.numberOfLeadingZeros(position) - FIRST_SEGMENT_BITS;
+    }
+
+    private static int segmentOffset(long position) {
+        return (int) (position - Long.highestOneBit(position));
     }
 }
@@ -0,0 +1,63 @@
+package ru.productstar.mockito.repository;
+
+import ru.productstar.mockito.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Вторичный индекс товаров по произвольному ключу. Заполняется и обновляется {@link ProductRepository}
+ * при добавлении товаров, поиск по ключу выполняется за O(1).
+ */
+public class ProductIndex<K> {
+    static final int REFERENCE_BYTES = 4;
+    static final int HASH_MAP_NODE_BYTES = 32;
+    static final int ARRAY_LIST_BYTES = 24 + 16;
+
+    private final Function<Product, K> keyExtractor;
+    private final Map<K, List<Product>> products = new HashMap<>();
+    private int size;
+
+    ProductIndex(Function<Product, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    void add(Product product) {
+        K key = keyExtractor.apply(product);
+        if (key != null) {
+            products.computeIfAbsent(key, k -> new ArrayList<>(1)).add(product);
+            size++;
+        }
+    }
+
+    /**
+     * @return товары с ключом {@code key} в порядке добавления или пустой список
+     */
+    public List<Product> get(K key) {
+        List<Product> found = products.get(key);
+        return found == null ? List.of() : Collections.unmodifiableList(found);
+    }
+
+    public int keyCount() {
+        return products.size();
+    }
+
+    /**
+     * Оценка памяти индекса в байтах для JVM со сжатыми ссылками: таблица и узлы {@link HashMap}
+     * плюс списки товаров по ключам. Сами товары и ключи не учитываются.
+     */
+    public long estimateBytes() {
+        return hashMapBytes(products.size())
+                + (long) products.size() * ARRAY_LIST_BYTES
+                + (long) size * REFERENCE_BYTES;
+    }
+
+    static long hashMapBytes(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f) + 1) - 1) << 1;
+        return (long) Math.max(16, capacity) * REFERENCE_BYTES + (long) entries * HASH_MAP_NODE_BYTES;
+    }
+}
@@ -3,10 +3,15 @@ package ru.productstar.mockito.repository;
 import ru.productstar.mockito.model.Product;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class ProductRepository {
     private List<Product> products = new ArrayList<>();
+    private final Map<String, Product> productsByName = new HashMap<>();
+    private final List<ProductIndex<?>> indexes = new ArrayList<>();
 
     public ProductRepository() {
         add(new Product("phone")); // 0
@@ -19,16 +24,46 @@ public class ProductRepository {
     public Product add(Product product) {
         product.setId(products.size());
         this.products.add(product);
+        productsByName.putIfAbsent(product.getName(), product);
+        for (ProductIndex<?> index : indexes) {
+            index.add(product);
+        }
         return product;
     }
 
+    /**
+     * Первый добавленный товар с таким названием.
+     */
     public Product getByName(String name) {
-        for (Product p : products) {
-            if (name.equals(p.getName())) {
-                return p;
-            }
+        return productsByName.get(name);
+    }
+
+    /**
+     * Создает вторичный индекс по ключу {@code keyExtractor}, заполняет его уже добавленными товарами
+     * и дальше поддерживает при каждом {@link #add(Product)}. Товары с ключом {@code null} в индекс не попадают.
+     */
+    public <K> ProductIndex<K> addIndex(Function<Product, K> keyExtractor) {
+        ProductIndex<K> index = new ProductIndex<>(keyExtractor);
+        for (Product product : products) {
+            index.add(product);
+        }
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Оценка памяти индекса по названию и вторичных индексов в байтах, без самих товаров.
+     */
+    public long estimateIndexBytes() {
+        long bytes = ProductIndex.hashMapBytes(productsByName.size());
+        for (ProductIndex<?> index : indexes) {
+            bytes += index.estimateBytes();
         }
-        return null;
+        return bytes;
+    }
+
+    public double estimateIndexBytesPerProduct() {
+        return products.isEmpty() ? 0 : (double) estimateIndexBytes() / products.size();
     }
 
     public List<Product> all() {
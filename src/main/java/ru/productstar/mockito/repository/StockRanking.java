@@ -0,0 +1,141 @@
+package ru.productstar.mockito.repository;
+
+import ru.productstar.delivery.DeliveryCost;
+import ru.productstar.delivery.MinorUnits;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+import ru.productstar.mockito.model.Shipment;
+import ru.productstar.mockito.model.Stock;
+import ru.productstar.mockito.model.Warehouse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ru.productstar.delivery.dicts.CargoFragility.NOT_FRAGILE;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.REGULAR_WORKLOAD;
+
+/**
+ * Предложения товара на складах, заранее упорядоченные для поиска самого дешевого склада с учетом доставки.
+ * <p>
+ * Для каждого товара предложения разложены по зонам {@link Distance} и внутри зоны отсортированы по цене.
+ * Стоимость доставки внутри зоны одинакова, поэтому порядок не зависит от тарифов: при поиске достаточно
+ * взять первое подходящее по количеству предложение в каждой зоне и сравнить их с текущей стоимостью доставки.
+ * <p>
+ * Ранжирование неизменяемо: добавление остатков возвращает новое ранжирование, в котором заново собраны только
+ * таблица товаров и массивы предложений затронутых товаров, остальное общее с прежним. Поэтому опубликованное
+ * ранжирование можно читать из любых потоков без блокировок.
+ */
+public class StockRanking {
+    private static final Distance[] DISTANCES = Distance.values();
+
+    private final Map<String, Offer[][]> offers;
+
+    public StockRanking() {
+        this(Map.of());
+    }
+
+    private StockRanking(Map<String, Offer[][]> offers) {
+        this.offers = offers;
+    }
+
+    /**
+     * Новое ранжирование с остатком {@code stock} склада {@code warehouse}; это ранжирование не меняется.
+     */
+    public StockRanking with(Warehouse warehouse, Stock stock) {
+        return with(warehouse, List.of(stock));
+    }
+
+    public StockRanking with(Warehouse warehouse, List<Stock> stocks) {
+        return with(List.of(warehouse), List.of(stocks));
+    }
+
+    /**
+     * Новое ранжирование с остатками {@code stocks.get(i)} склада {@code warehouses.get(i)} за одну пересборку.
+     */
+    public StockRanking with(List<Warehouse> warehouses, List<List<Stock>> stocks) {
+        Map<String, Offer[][]> next = new HashMap<>(offers);
+        for (int i = 0; i < warehouses.size(); i++) {
+            Warehouse warehouse = warehouses.get(i);
+            for (Stock stock : stocks.get(i)) {
+                insert(next, warehouse, stock);
+            }
+        }
+        return new StockRanking(next);
+    }
+
+    private static void insert(Map<String, Offer[][]> offers, Warehouse warehouse, Stock stock) {
+        String name = stock.getProduct().getName();
+        Offer[][] byDistance = offers.get(name);
+        byDistance = byDistance == null ? newBuckets() : byDistance.clone();
+        int distance = Distance.ofKilometers(warehouse.getDistance()).ordinal();
+        Offer[] bucket = byDistance[distance];
+
+        int position = bucket.length;
+        while (position > 0 && bucket[position - 1].stock.getPrice() > stock.getPrice()) {
+            position--;
+        }
+        Offer[] inserted = new Offer[bucket.length + 1];
+        System.arraycopy(bucket, 0, inserted, 0, position);
+        inserted[position] = new Offer(warehouse, stock);
+        System.arraycopy(bucket, position, inserted, position + 1, bucket.length - position);
+        byDistance[distance] = inserted;
+        offers.put(name, byDistance);
+    }
+
+    /**
+     * Склад с минимальной стоимостью товара и доставки: цена за единицу × количество плюс стоимость доставки.
+     * При равной стоимости выбирается более близкий склад.
+     */
+    public Warehouse findCheapest(String productName, int count) {
+        return findCheapest(productName, count, REGULAR_WORKLOAD);
+    }
+
+    /**
+     * @param workload загруженность службы доставки, по которой считается стоимость доставки
+     */
+    public Warehouse findCheapest(String productName, int count, DeliveryServiceWorkload workload) {
+        Offer[][] byDistance = offers.get(productName);
+        if (byDistance == null) {
+            return null;
+        }
+
+        CargoSize cargoSize = count > Shipment.LARGE_CARGO_UNITS ? CargoSize.LARGE_CARGO : CargoSize.SMALL_CARGO;
+        Warehouse cheapest = null;
+        long cheapestCost = Long.MAX_VALUE;
+        for (Distance distance : DISTANCES) {
+            Offer offer = firstAvailable(byDistance[distance.ordinal()], count);
+            if (offer == null) {
+                continue;
+            }
+            long cost = MinorUnits.fromMajor((long) offer.stock.getPrice() * count)
+                    + DeliveryCost.calculateDeliveryCostKopecks(distance, cargoSize, NOT_FRAGILE, workload);
+            if (cost < cheapestCost) {
+                cheapest = offer.warehouse;
+                cheapestCost = cost;
+            }
+        }
+        return cheapest;
+    }
+
+    private static Offer firstAvailable(Offer[] bucket, int count) {
+        for (Offer offer : bucket) {
+            if (offer.stock.getCount() >= count) {
+                return offer;
+            }
+        }
+        return null;
+    }
+
+    private static Offer[][] newBuckets() {
+        Offer[][] buckets = new Offer[DISTANCES.length][];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Offer[0];
+        }
+        return buckets;
+    }
+
+    private record Offer(Warehouse warehouse, Stock stock) {
+    }
+}
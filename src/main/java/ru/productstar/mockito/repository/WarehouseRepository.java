@@ -3,12 +3,20 @@ package ru.productstar.mockito.repository;
 import ru.productstar.mockito.model.Stock;
 import ru.productstar.mockito.model.Warehouse;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Склады по id.
+ * <p>
+ * {@link #all()}, {@link #getById(int)} и {@link #getStockRanking()} читают общий для всех читателей
+ * неизменяемый снимок: список складов и {@link StockRanking}. Снимок пересобирается под монитором только
+ * при добавлении складов и остатков (copy-on-write) и публикуется одной volatile-записью, поэтому чтение
+ * не блокирует и ничего не выделяет. Остатки самих складов тоже неизменяемые, см. {@link Warehouse#getStocks()}.
+ * Id складов идут подряд с нуля, поэтому id — это позиция склада в снимке.
+ */
 public class WarehouseRepository {
-    private Map<Integer, Warehouse> warehouses = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), new StockRanking());
 
     public WarehouseRepository(ProductRepository productRepository) {
         Warehouse wh0 = new Warehouse("Warehouse0", 30);
@@ -32,19 +40,62 @@ public class WarehouseRepository {
     }
 
     public Warehouse add(Warehouse warehouse) {
-        warehouse.setId(warehouses.size());
-        return this.warehouses.put(warehouse.getId(), warehouse);
+        addAll(List.of(warehouse));
+        return null;
     }
 
+    /**
+     * Добавляет склады за одну пересборку снимка; для массовой загрузки дешевле, чем {@link #add(Warehouse)}
+     * по одному.
+     */
+    public synchronized void addAll(List<Warehouse> warehouses) {
+        List<Warehouse> current = snapshot.warehouses();
+        Warehouse[] all = current.toArray(new Warehouse[current.size() + warehouses.size()]);
+        List<List<Stock>> stocks = new ArrayList<>(warehouses.size());
+        for (int i = 0; i < warehouses.size(); i++) {
+            Warehouse warehouse = warehouses.get(i);
+            warehouse.setId(current.size() + i);
+            all[current.size() + i] = warehouse;
+            stocks.add(warehouse.getStocks());
+        }
+        snapshot = new Snapshot(List.of(all), snapshot.stockRanking().with(warehouses, stocks));
+    }
+
+    /**
+     * Добавляет остаток на склад из репозитория и обновляет ранжирование предложений.
+     */
+    public synchronized boolean addStock(Warehouse warehouse, Stock stock) {
+        boolean added = warehouse.addStock(stock);
+        snapshot = new Snapshot(snapshot.warehouses(), snapshot.stockRanking().with(warehouse, stock));
+        return added;
+    }
+
+    /**
+     * Неизменяемое ранжирование из текущего снимка; не меняется при последующих добавлениях.
+     */
+    public StockRanking getStockRanking() {
+        return snapshot.stockRanking();
+    }
+
+    /**
+     * @return склад или {@code null}, если склада с таким id нет
+     */
     public Warehouse getById(int id) {
-        return warehouses.get(id);
+        List<Warehouse> warehouses = snapshot.warehouses();
+        return id >= 0 && id < warehouses.size() ? warehouses.get(id) : null;
     }
 
+    /**
+     * Неизменяемый снимок складов в порядке id; один и тот же объект до следующего {@link #add(Warehouse)}.
+     */
     public List<Warehouse> all() {
-        return warehouses.values().stream().toList();
+        return snapshot.warehouses();
     }
 
     public int size() {
-        return warehouses.size();
+        return snapshot.warehouses().size();
+    }
+
+    private record Snapshot(List<Warehouse> warehouses, StockRanking stockRanking) {
     }
 }
\ No newline at end of file
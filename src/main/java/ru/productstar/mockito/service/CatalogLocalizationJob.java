@@ -0,0 +1,202 @@
+package ru.productstar.mockito.service;
+
+import ru.productstar.mockito.model.Product;
+import ru.productstar.mockito.repository.LocalizedNameIndex;
+import ru.productstar.mockito.repository.ProductRepository;
+import ru.productstar.translate.LruTranslationCache;
+import ru.productstar.translate.MyTranslationService;
+import ru.productstar.translate.TranslationCache;
+import ru.productstar.translate.TranslationKey;
+import ru.productstar.translate.TranslationPriority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пакетная локализация названий всех товаров каталога.
+ * <p>
+ * Товары читаются из {@link ProductRepository} по одному, уже локализованные пропускаются. Одинаковые названия
+ * переводятся один раз за запуск: товары с названием, которое уже переводится, ждут этого перевода, а товары
+ * с недавно переведенным названием получают готовый перевод без вызова API. Готовые переводы хранятся в LRU
+ * на {@code rememberedNames} названий, поэтому память задачи ограничена и не зависит от числа разных названий
+ * в каталоге; название, вытесненное из LRU, при повторной встрече переводится еще раз. Уникальные названия
+ * собираются в пакеты по {@code batchSize} и переводятся одним вызовом Google Translate API с низким приоритетом
+ * {@link TranslationPriority#BULK}; одновременно переводится не больше {@code parallelism} пакетов. Ошибка
+ * пакета не останавливает задачу: его товары остаются нелокализованными и будут переведены при повторном запуске.
+ */
+public class CatalogLocalizationJob {
+    private static final String TARGET_LANGUAGE = "ru";
+    private static final int DEFAULT_REMEMBERED_NAMES = 10_000;
+
+    private final ProductRepository productRepository;
+    private final MyTranslationService translationService;
+    private final LocalizedNameIndex localizedNames;
+    private final int batchSize;
+    private final int parallelism;
+    private final int rememberedNames;
+
+    public CatalogLocalizationJob(ProductRepository productRepository,
+                                  MyTranslationService translationService,
+                                  LocalizedNameIndex localizedNames,
+                                  int batchSize,
+                                  int parallelism) {
+        this(productRepository, translationService, localizedNames, batchSize, parallelism, DEFAULT_REMEMBERED_NAMES);
+    }
+
+    /**
+     * @param rememberedNames сколько последних переведенных названий хранить для повторных товаров
+     */
+    public CatalogLocalizationJob(ProductRepository productRepository,
+                                  MyTranslationService translationService,
+                                  LocalizedNameIndex localizedNames,
+                                  int batchSize,
+                                  int parallelism,
+                                  int rememberedNames) {
+        if (batchSize < 1 || parallelism < 1 || rememberedNames < 1) {
+            throw new IllegalArgumentException("batch size, parallelism and remembered names must be positive");
+        }
+        this.productRepository = productRepository;
+        this.translationService = translationService;
+        this.localizedNames = localizedNames;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.rememberedNames = rememberedNames;
+    }
+
+    public Report run() {
+        Report report = new Report();
+        Semaphore permits = new Semaphore(parallelism);
+        Map<String, List<Integer>> batch = new HashMap<>();
+        Map<String, List<Integer>> inFlight = new HashMap<>();
+        TranslationCache translated = new LruTranslationCache(rememberedNames);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Product product : productRepository.all()) {
+                if (localizedNames.contains(product.getId())) {
+                    report.skipped.incrementAndGet();
+                    continue;
+                }
+                String translation;
+                synchronized (inFlight) {
+                    List<Integer> waiting = inFlight.get(product.getName());
+                    if (waiting != null) {
+                        waiting.add(product.getId());
+                        continue;
+                    }
+                    translation = translated.peek(new TranslationKey(product.getName(), TARGET_LANGUAGE));
+                }
+                if (translation != null) {
+                    localizedNames.put(product.getId(), translation);
+                    report.localized.incrementAndGet();
+                    continue;
+                }
+                batch.computeIfAbsent(product.getName(), name -> new ArrayList<>()).add(product.getId());
+                if (batch.size() == batchSize) {
+                    submit(batch, inFlight, translated, permits, executor, report);
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, inFlight, translated, permits, executor, report);
+            }
+        }
+        return report;
+    }
+
+    private void submit(Map<String, List<Integer>> batch,
+                        Map<String, List<Integer>> inFlight,
+                        TranslationCache translated,
+                        Semaphore permits,
+                        ExecutorService executor,
+                        Report report) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Catalog localization interrupted", ex);
+        }
+        synchronized (inFlight) {
+            inFlight.putAll(batch);
+        }
+        report.batches.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                translate(batch, inFlight, translated, report);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Готовые переводы кладутся в {@code translated} под тем же монитором {@code inFlight}, под которым название
+     * снимается с ожидания, поэтому товар с этим названием найдет либо список ожидающих, либо перевод.
+     */
+    private void translate(Map<String, List<Integer>> batch,
+                           Map<String, List<Integer>> inFlight,
+                           TranslationCache translated,
+                           Report report) {
+        List<String> names = new ArrayList<>(batch.keySet());
+        List<String> translations = null;
+        try {
+            translations = translationService.translateAllWithGoogle(names, TARGET_LANGUAGE, TranslationPriority.BULK);
+        } catch (RuntimeException ex) {
+            report.failedBatches.incrementAndGet();
+        }
+
+        for (int i = 0; i < names.size(); i++) {
+            List<Integer> productIds;
+            synchronized (inFlight) {
+                productIds = inFlight.remove(names.get(i));
+                if (translations != null) {
+                    translated.put(new TranslationKey(names.get(i), TARGET_LANGUAGE), translations.get(i));
+                }
+            }
+            if (translations == null) {
+                report.failed.addAndGet(productIds.size());
+                continue;
+            }
+            for (int productId : productIds) {
+                localizedNames.put(productId, translations.get(i));
+            }
+            report.localized.addAndGet(productIds.size());
+        }
+    }
+
+    /**
+     * Итоги запуска: сколько товаров локализовано, пропущено как уже локализованные и не локализовано из-за ошибок.
+     */
+    public static class Report {
+        private final AtomicInteger localized = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger failedBatches = new AtomicInteger();
+
+        public int getLocalizedCount() {
+            return localized.get();
+        }
+
+        public int getSkippedCount() {
+            return skipped.get();
+        }
+
+        public int getFailedCount() {
+            return failed.get();
+        }
+
+        public int getBatchCount() {
+            return batches.get();
+        }
+
+        public int getFailedBatchCount() {
+            return failedBatches.get();
+        }
+    }
+}
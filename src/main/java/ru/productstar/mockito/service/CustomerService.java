@@ -15,7 +15,7 @@ public class CustomerService {
         Customer customer = customerRepository.getByName(name);
         if (customer == null) {
             customer = new Customer(name);
-            return customerRepository.add(customer);
+            return customerRepository.getOrAdd(customer);
         } else {
             return customer;
         }
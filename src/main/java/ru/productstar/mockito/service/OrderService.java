@@ -1,5 +1,7 @@
 package ru.productstar.mockito.service;
 
+import ru.productstar.delivery.WorkloadMeter;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
 import ru.productstar.mockito.ProductNotFoundException;
 import ru.productstar.mockito.model.Delivery;
 import ru.productstar.mockito.model.Order;
@@ -13,6 +15,7 @@ public class OrderService {
     private WarehouseService warehouseService;
     private OrderRepository orderRepository;
     private ProductRepository productRepository;
+    private WorkloadMeter workloadMeter;
 
     public OrderService(CustomerService customerService, WarehouseService warehouseService, OrderRepository orderRepository, ProductRepository productRepository) {
         this.customerService = customerService;
@@ -21,18 +24,33 @@ public class OrderService {
         this.productRepository = productRepository;
     }
 
+    /**
+     * @param workloadMeter счетчик, в который записывается каждая добавленная в заказ позиция; его текущая
+     *                      загруженность используется при выборе самого дешевого склада и в стоимости доставки
+     */
+    public OrderService(CustomerService customerService, WarehouseService warehouseService, OrderRepository orderRepository, ProductRepository productRepository, WorkloadMeter workloadMeter) {
+        this(customerService, warehouseService, orderRepository, productRepository);
+        this.workloadMeter = workloadMeter;
+    }
+
     public Order create(String customerName) {
         return orderRepository.create(customerService.getOrCreate(customerName));
     }
 
     public Order addProduct(Order order, String productName, int count, boolean fastestDelivery) throws ProductNotFoundException {
+        return addProduct(order, productName, count, fastestDelivery ? WarehouseSelection.CLOSEST : WarehouseSelection.FIRST);
+    }
 
-        Warehouse wh;
-        if (fastestDelivery) {
-            wh = warehouseService.findClosestWarehouse(productName, count);
-        } else {
-            wh = warehouseService.findWarehouse(productName, count);
-        }
+    public Order addProduct(Order order, String productName, int count, WarehouseSelection selection) throws ProductNotFoundException {
+        DeliveryServiceWorkload workload = workloadMeter != null ? workloadMeter.currentWorkload() : null;
+
+        Warehouse wh = switch (selection) {
+            case FIRST -> warehouseService.findWarehouse(productName, count);
+            case CLOSEST -> warehouseService.findClosestWarehouse(productName, count);
+            case CHEAPEST -> workload != null
+                    ? warehouseService.findCheapestWarehouse(productName, count, workload)
+                    : warehouseService.findCheapestWarehouse(productName, count);
+        };
 
         if (wh == null) {
             throw new ProductNotFoundException(productName);
@@ -44,6 +62,11 @@ public class OrderService {
                 wh,
                 warehouseService.getStock(wh, productName).getPrice(),
                 count);
-        return orderRepository.addDelivery(order.getId(), delivery);
+        if (workload == null) {
+            return orderRepository.addDelivery(order.getId(), delivery);
+        }
+        Order updated = orderRepository.addDelivery(order.getId(), delivery, workload);
+        workloadMeter.record();
+        return updated;
     }
 }
@@ -0,0 +1,8 @@
+package ru.productstar.mockito.service;
+
+/**
+ * Способ выбора склада для позиции заказа.
+ */
+public enum WarehouseSelection {
+    FIRST, CLOSEST, CHEAPEST
+}
@@ -1,11 +1,10 @@
 package ru.productstar.mockito.service;
 
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
 import ru.productstar.mockito.model.Stock;
 import ru.productstar.mockito.model.Warehouse;
 import ru.productstar.mockito.repository.WarehouseRepository;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 public class WarehouseService {
@@ -29,34 +28,53 @@ public class WarehouseService {
     }
 
     public Warehouse findWarehouse(String productName, int count) {
-        List<Warehouse> whs = findWarehouses(productName, count);
-        if (!whs.isEmpty()) {
-            return whs.get(0);
-        } else {
-            return null;
+        List<Warehouse> whs = warehouseRepository.all();
+        for (int i = 0; i < whs.size(); i++) {
+            Warehouse wh = whs.get(i);
+            if (hasStock(wh, productName, count)) {
+                return wh;
+            }
         }
+        return null;
     }
 
     public Warehouse findClosestWarehouse(String productName, int count) {
-        List<Warehouse> whs = findWarehouses(productName, count);
-        if (!whs.isEmpty() && whs.size() > 1) {
-            return whs.stream().min(Comparator.comparingInt(Warehouse::getDistance)).get();
-        } else if (!whs.isEmpty()) {
-            return whs.get(0);
-        } else {
-            return null;
+        Warehouse closest = null;
+        List<Warehouse> whs = warehouseRepository.all();
+        for (int i = 0; i < whs.size(); i++) {
+            Warehouse wh = whs.get(i);
+            if ((closest == null || wh.getDistance() < closest.getDistance()) && hasStock(wh, productName, count)) {
+                closest = wh;
+            }
         }
+        return closest;
+    }
+
+    /**
+     * Склад с минимальной итоговой стоимостью: цена товара × количество плюс стоимость доставки.
+     */
+    public Warehouse findCheapestWarehouse(String productName, int count) {
+        return warehouseRepository.getStockRanking().findCheapest(productName, count);
+    }
+
+    /**
+     * То же с доставкой по загруженности службы доставки {@code workload}.
+     */
+    public Warehouse findCheapestWarehouse(String productName, int count, DeliveryServiceWorkload workload) {
+        return warehouseRepository.getStockRanking().findCheapest(productName, count, workload);
     }
 
-    private List<Warehouse> findWarehouses(String productName, int count) {
-        List<Warehouse> whs = new ArrayList<>();
-        for (Warehouse wh : warehouseRepository.all()) {
-            for(Stock s : wh.getStocks()) {
-                if(s.getProduct().getName().equals(productName) && s.getCount() >= count) {
-                    whs.add(wh);
-                }
+    /**
+     * Проходит по остаткам склада по индексу, без итератора: поиск на пути заказа ничего не выделяет.
+     */
+    private static boolean hasStock(Warehouse wh, String productName, int count) {
+        List<Stock> stocks = wh.getStocks();
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock s = stocks.get(i);
+            if (s.getProduct().getName().equals(productName) && s.getCount() >= count) {
+                return true;
             }
         }
-        return whs;
+        return false;
     }
 }
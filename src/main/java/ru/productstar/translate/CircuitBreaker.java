@@ -0,0 +1,99 @@
+package ru.productstar.translate;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Размыкает вызовы Google Translate API, пока он недоступен.
+ * <p>
+ * После {@code failureThreshold} ошибок подряд цепь размыкается: в течение {@code openDuration} вызовы сразу
+ * завершаются {@link MyTranslationServiceException}, не дожидаясь таймаута. Затем один пробный вызов решает,
+ * замкнуть цепь снова или разомкнуть еще на {@code openDuration}.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    public <T> T call(Supplier<T> call) {
+        boolean trial = acquire();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error ex) {
+            onFailure(trial);
+            throw ex;
+        }
+        onSuccess(trial);
+        return result;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean acquire() {
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        throw new MyTranslationServiceException("Google Translate API is unavailable, circuit breaker is open", null);
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+            state = State.CLOSED;
+        }
+        if (state == State.CLOSED) {
+            failures = 0;
+        }
+    }
+
+    private synchronized void onFailure(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+            open();
+        } else if (state == State.CLOSED && ++failures >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        failures = 0;
+    }
+}
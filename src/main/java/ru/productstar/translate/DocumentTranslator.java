@@ -0,0 +1,186 @@
+package ru.productstar.translate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.BreakIterator;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Потоковый перевод больших документов.
+ * <p>
+ * Текст читается по частям и делится на предложения {@link BreakIterator}. Предложения собираются в куски
+ * не длиннее {@code maxChunkChars} символов, кусок заканчивается на конце абзаца; слишком длинное предложение
+ * режется по пробелам. Куски переводятся параллельно, но одновременно в работе не больше {@code window} кусков:
+ * перевод первого куска записывается в {@link Writer} сразу, как только готов, не дожидаясь конца документа.
+ * Порядок кусков сохраняется, пробелы и переводы строк по краям куска переносятся в результат без перевода.
+ */
+public class DocumentTranslator {
+    public static final int DEFAULT_MAX_CHUNK_CHARS = 4_000;
+    public static final int DEFAULT_WINDOW = 8;
+
+    private static final int READ_BUFFER_CHARS = 8_192;
+
+    private final MyTranslationService translationService;
+    private final int maxChunkChars;
+    private final int window;
+
+    public DocumentTranslator(MyTranslationService translationService) {
+        this(translationService, DEFAULT_MAX_CHUNK_CHARS, DEFAULT_WINDOW);
+    }
+
+    public DocumentTranslator(MyTranslationService translationService, int maxChunkChars, int window) {
+        if (maxChunkChars < 1) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.translationService = translationService;
+        this.maxChunkChars = maxChunkChars;
+        this.window = window;
+    }
+
+    public void translate(InputStream in, OutputStream out, String targetLanguage) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        translate(new InputStreamReader(in, StandardCharsets.UTF_8), writer, targetLanguage);
+        writer.flush();
+    }
+
+    public void translate(Reader in, Writer out, String targetLanguage) throws IOException {
+        new Pipeline(out, targetLanguage).run(in);
+    }
+
+    private final class Pipeline {
+        private final Writer out;
+        private final String targetLanguage;
+        private final Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+        private final StringBuilder chunk = new StringBuilder();
+        private final BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+
+        Pipeline(Writer out, String targetLanguage) {
+            this.out = out;
+            this.targetLanguage = targetLanguage;
+        }
+
+        void run(Reader in) throws IOException {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[READ_BUFFER_CHARS];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                text.append(buffer, 0, read);
+                int consumed = splitSentences(text, false);
+                text.delete(0, consumed);
+            }
+            splitSentences(text, true);
+            emitChunk();
+            while (!inFlight.isEmpty()) {
+                writeHead();
+            }
+            out.flush();
+        }
+
+        /**
+         * @return сколько символов из начала {@code text} разобрано на предложения
+         */
+        private int splitSentences(StringBuilder text, boolean endOfInput) throws IOException {
+            String current = text.toString();
+            sentences.setText(current);
+            int start = sentences.first();
+            for (int end = sentences.next(); end != BreakIterator.DONE; end = sentences.next()) {
+                if (end == current.length() && !endOfInput) {
+                    break;
+                }
+                addSentence(current, start, end);
+                start = end;
+            }
+            while (!endOfInput && current.length() - start > maxChunkChars) {
+                int end = splitPoint(current, start);
+                addSentence(current, start, end);
+                start = end;
+            }
+            return start;
+        }
+
+        private void addSentence(String text, int start, int end) throws IOException {
+            while (end - start > maxChunkChars) {
+                int split = splitPoint(text, start);
+                addSentence(text, start, split);
+                start = split;
+            }
+            if (chunk.length() + (end - start) > maxChunkChars) {
+                emitChunk();
+            }
+            chunk.append(text, start, end);
+            if (text.charAt(end - 1) == '\n') {
+                emitChunk();
+            }
+        }
+
+        private int splitPoint(String text, int start) {
+            int limit = start + maxChunkChars;
+            for (int i = limit; i > start; i--) {
+                if (Character.isWhitespace(text.charAt(i - 1))) {
+                    return i;
+                }
+            }
+            return Character.isLowSurrogate(text.charAt(limit)) ? limit - 1 : limit;
+        }
+
+        private void emitChunk() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            String text = chunk.toString();
+            chunk.setLength(0);
+
+            int from = 0;
+            while (from < text.length() && Character.isWhitespace(text.charAt(from))) {
+                from++;
+            }
+            int to = text.length();
+            while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+                to--;
+            }
+            if (from == to) {
+                inFlight.add(CompletableFuture.completedFuture(text));
+            } else {
+                String leading = text.substring(0, from);
+                String trailing = text.substring(to);
+                inFlight.add(translationService.translateWithGoogleAsync(text.substring(from, to), targetLanguage)
+                        .thenApply(translation -> leading + translation + trailing));
+            }
+
+            while (inFlight.size() > window || inFlight.peekFirst().isDone()) {
+                writeHead();
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+            }
+        }
+
+        private void writeHead() throws IOException {
+            CompletableFuture<String> head = inFlight.removeFirst();
+            try {
+                out.write(head.join());
+            } catch (CompletionException ex) {
+                inFlight.forEach(pending -> pending.cancel(false));
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new MyTranslationServiceException("Exception while translating document", ex.getCause());
+            }
+            if (inFlight.isEmpty() || !inFlight.peekFirst().isDone()) {
+                out.flush();
+            }
+        }
+    }
+}
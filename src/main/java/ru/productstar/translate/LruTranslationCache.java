@@ -0,0 +1,114 @@
+package ru.productstar.translate;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш переводов с ограничением размера по LRU и необязательным временем жизни записей.
+ * <p>
+ * Считает попадания, промахи и вытеснения (в том числе по истечении времени жизни).
+ */
+public class LruTranslationCache implements TranslationCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<TranslationKey, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruTranslationCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param ttl время жизни записи или {@code null}, если записи не устаревают
+     */
+    public LruTranslationCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    LruTranslationCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public String get(TranslationKey key) {
+        return lookup(key, true);
+    }
+
+    @Override
+    public String peek(TranslationKey key) {
+        return lookup(key, false);
+    }
+
+    private String lookup(TranslationKey key, boolean counted) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                if (counted) {
+                    misses.increment();
+                }
+                return null;
+            }
+            if (counted) {
+                hits.increment();
+            }
+            return entry.translation;
+        }
+    }
+
+    @Override
+    public void put(TranslationKey key, String translation) {
+        synchronized (entries) {
+            entries.put(key, new Entry(translation, ttlNanos == 0 ? 0 : clock.getAsLong() + ttlNanos));
+            Iterator<Map.Entry<TranslationKey, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlNanos != 0 && clock.getAsLong() - entry.expiresAt >= 0;
+    }
+
+    private record Entry(String translation, long expiresAt) {
+    }
+}
@@ -0,0 +1,431 @@
+package ru.productstar.translate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Переводы, сохраненные на диске: переживают перезапуск процесса.
+ * <p>
+ * Файл — журнал, в который записи только дописываются. Запись состоит из длины тела, CRC32 тела и самого тела:
+ * предложение, язык и перевод в UTF-8, каждое с длиной. Файл читается и пишется через {@link MappedByteBuffer}.
+ * В памяти хранится только компактный хэш-индекс с открытой адресацией: хэш ключа и смещение последней записи
+ * по ключу. При открытии журнал сканируется до первой неполной или поврежденной записи, все после нее
+ * отбрасывается — так недописанная при падении процесса запись не попадает в индекс.
+ * <p>
+ * Повторная запись по ключу делает предыдущую устаревшей. Когда устаревших записей становится больше,
+ * чем актуальных, журнал переписывается без них во временный файл, который атомарно заменяет исходный.
+ * <p>
+ * Ошибка записи или сжатия журнала не ломает перевод, который уже получен: она пишется в лог и учитывается
+ * в {@link #getWriteFailureCount()}, а кэш продолжает работать с тем, что удалось записать.
+ */
+public class MappedTranslationMemory implements TranslationCache, AutoCloseable {
+    private static final int MAGIC = 0x544D454D;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_MAPPED_SIZE = 1 << 20;
+    private static final int MIN_STALE_TO_COMPACT = 1024;
+    private static final long EMPTY = 0;
+    private static final int ZERO_CHUNK_SIZE = 64 * 1024;
+    private static final System.Logger LOGGER = System.getLogger(MappedTranslationMemory.class.getName());
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    private int[] hashes;
+    private long[] offsets;
+    private int live;
+    private int stale;
+    private IOException reopenFailure;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    public MappedTranslationMemory(Path path) throws IOException {
+        this.path = path;
+        open();
+    }
+
+    @Override
+    public String get(TranslationKey key) {
+        return lookup(key, true);
+    }
+
+    @Override
+    public String peek(TranslationKey key) {
+        return lookup(key, false);
+    }
+
+    private String lookup(TranslationKey key, boolean counted) {
+        byte[] sentence = key.sentence().getBytes(StandardCharsets.UTF_8);
+        byte[] language = key.targetLanguage().getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sentence, language);
+
+        lock.readLock().lock();
+        try {
+            int slot = find(hash, sentence, language);
+            if (offsets[slot] == EMPTY) {
+                if (counted) {
+                    misses.increment();
+                }
+                return null;
+            }
+            if (counted) {
+                hits.increment();
+            }
+            return readTranslation((int) offsets[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(TranslationKey key, String translation) {
+        byte[] sentence = key.sentence().getBytes(StandardCharsets.UTF_8);
+        byte[] language = key.targetLanguage().getBytes(StandardCharsets.UTF_8);
+        byte[] text = translation.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sentence, language);
+
+        lock.writeLock().lock();
+        try {
+            reopenIfFailed();
+            int offset = append(sentence, language, text);
+            index(hash, sentence, language, offset);
+            if (stale >= MIN_STALE_TO_COMPACT && stale > live) {
+                compact();
+            }
+        } catch (IOException ex) {
+            writeFailures.increment();
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to store translation in " + path, ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Переписывает журнал, оставляя только актуальные записи. Если переписать не удалось, продолжаем работать
+     * с исходным журналом. Если журнал уже заменен, но открыть новый не удалось, старый файл удален
+     * и писать в него нельзя: переводы читаются из прежнего отображения, в котором те же записи, а каждая
+     * следующая запись сначала снова пытается открыть новый журнал и, пока не откроет, завершается ошибкой.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            reopenIfFailed();
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                target.write(header());
+                long[] liveOffsets = Arrays.stream(offsets).filter(offset -> offset != EMPTY).sorted().toArray();
+                for (long offset : liveOffsets) {
+                    int length = RECORD_HEADER_SIZE + buffer.getInt((int) offset);
+                    target.write(buffer.slice((int) offset, length));
+                }
+                target.force(true);
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                try {
+                    Files.deleteIfExists(compacted);
+                } catch (IOException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+            reopen();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает записанные переводы на диск.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.truncate(writePosition);
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getStaleCount() {
+        lock.readLock().lock();
+        try {
+            return stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Размер журнала в байтах без зарезервированного под новые записи места.
+     */
+    public long getLogSize() {
+        lock.readLock().lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Сколько раз не удалось записать перевод в журнал или сжать журнал.
+     */
+    public long getWriteFailureCount() {
+        return writeFailures.sum();
+    }
+
+    private void reopenIfFailed() throws IOException {
+        if (reopenFailure != null) {
+            reopen();
+        }
+    }
+
+    /**
+     * Открывает журнал, которым заменили исходный файл. Если открыть не удалось, прежнее отображение остается
+     * только для чтения: его файл уже удален, и записанное в него потерялось бы. Запись запрещена, пока
+     * журнал не удастся открыть.
+     */
+    private void reopen() throws IOException {
+        FileChannel oldChannel = channel;
+        MappedByteBuffer oldBuffer = buffer;
+        int oldWritePosition = writePosition;
+        int[] oldHashes = hashes;
+        long[] oldOffsets = offsets;
+        int oldLive = live;
+        int oldStale = stale;
+        try {
+            open();
+        } catch (IOException ex) {
+            channel = oldChannel;
+            buffer = oldBuffer;
+            writePosition = oldWritePosition;
+            hashes = oldHashes;
+            offsets = oldOffsets;
+            live = oldLive;
+            stale = oldStale;
+            reopenFailure = ex;
+            throw ex;
+        }
+        reopenFailure = null;
+        oldChannel.close();
+    }
+
+    private void open() throws IOException {
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long fileSize = opened.size();
+            if (fileSize == 0) {
+                opened.write(header(), 0);
+                fileSize = HEADER_SIZE;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            opened.read(header, 0);
+            if (fileSize > Integer.MAX_VALUE || !header.flip().equals(header())) {
+                throw new IOException("Not a translation memory file: " + path);
+            }
+            MappedByteBuffer mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(MIN_MAPPED_SIZE, fileSize));
+
+            channel = opened;
+            buffer = mapped;
+            hashes = new int[64];
+            offsets = new long[64];
+            live = 0;
+            stale = 0;
+            recover(fileSize);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                opened.close();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Восстанавливает индекс по журналу и отбрасывает хвост после первой неполной или поврежденной записи.
+     */
+    private void recover(long fileSize) {
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= fileSize) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + (long) length > fileSize
+                    || crc(position + RECORD_HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                break;
+            }
+            int body = position + RECORD_HEADER_SIZE;
+            byte[] sentence = readBytes(body);
+            byte[] language = readBytes(body + 4 + sentence.length);
+            index(hash(sentence, language), sentence, language, position);
+            position = body + length;
+        }
+        writePosition = position;
+        byte[] zeros = new byte[(int) Math.min(ZERO_CHUNK_SIZE, fileSize - writePosition)];
+        for (long zeroed = writePosition; zeroed < fileSize; zeroed += zeros.length) {
+            buffer.put((int) zeroed, zeros, 0, (int) Math.min(zeros.length, fileSize - zeroed));
+        }
+    }
+
+    private int append(byte[] sentence, byte[] language, byte[] translation) throws IOException {
+        int length = 12 + sentence.length + language.length + translation.length;
+        long end = (long) writePosition + RECORD_HEADER_SIZE + length;
+        if (end > Integer.MAX_VALUE) {
+            throw new IOException("Translation memory is full: " + path);
+        }
+        if (end > buffer.capacity()) {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(end, Math.min(2L * buffer.capacity(), Integer.MAX_VALUE)));
+        }
+
+        int offset = writePosition;
+        int body = offset + RECORD_HEADER_SIZE;
+        int position = writeBytes(body, sentence);
+        position = writeBytes(position, language);
+        writeBytes(position, translation);
+        buffer.putInt(offset + 4, crc(body, length));
+        buffer.putInt(offset, length);
+        writePosition = (int) end;
+        return offset;
+    }
+
+    private void index(int hash, byte[] sentence, byte[] language, int offset) {
+        if (2 * (live + 1) > offsets.length) {
+            resize();
+        }
+        int slot = find(hash, sentence, language);
+        if (offsets[slot] == EMPTY) {
+            live++;
+        } else {
+            stale++;
+        }
+        hashes[slot] = hash;
+        offsets[slot] = offset;
+    }
+
+    private int find(int hash, byte[] sentence, byte[] language) {
+        int mask = offsets.length - 1;
+        int slot = hash & mask;
+        while (offsets[slot] != EMPTY) {
+            if (hashes[slot] == hash && keyEquals((int) offsets[slot], sentence, language)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        int[] oldHashes = hashes;
+        long[] oldOffsets = offsets;
+        hashes = new int[oldHashes.length * 2];
+        offsets = new long[oldOffsets.length * 2];
+        int mask = offsets.length - 1;
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] != EMPTY) {
+                int slot = oldHashes[i] & mask;
+                while (offsets[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                offsets[slot] = oldOffsets[i];
+            }
+        }
+    }
+
+    private boolean keyEquals(int offset, byte[] sentence, byte[] language) {
+        int position = offset + RECORD_HEADER_SIZE;
+        return bytesEqual(position, sentence) && bytesEqual(position + 4 + sentence.length, language);
+    }
+
+    private boolean bytesEqual(int position, byte[] expected) {
+        if (buffer.getInt(position) != expected.length) {
+            return false;
+        }
+        return buffer.slice(position + 4, expected.length).equals(ByteBuffer.wrap(expected));
+    }
+
+    private String readTranslation(int offset) {
+        int position = offset + RECORD_HEADER_SIZE;
+        position += 4 + buffer.getInt(position);
+        position += 4 + buffer.getInt(position);
+        return new String(readBytes(position), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes(int position) {
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes);
+        return bytes;
+    }
+
+    private int writeBytes(int position, byte[] bytes) {
+        buffer.putInt(position, bytes.length);
+        buffer.put(position + 4, bytes);
+        return position + 4 + bytes.length;
+    }
+
+    private int crc(int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+    }
+
+    private static int hash(byte[] sentence, byte[] language) {
+        int hash = 31 * Arrays.hashCode(sentence) + Arrays.hashCode(language);
+        return hash ^ (hash >>> 16);
+    }
+}
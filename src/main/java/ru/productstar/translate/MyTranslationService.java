@@ -3,18 +3,231 @@ package ru.productstar.translate;
 import com.google.cloud.translate.Translate;
 import com.google.cloud.translate.Translation;
 
-public class MyTranslationService {
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class MyTranslationService implements AutoCloseable {
     private final Translate googleTranslate;
+    private final TranslationCache cache;
+    private final TranslationBatcher batcher;
+    private final TranslationLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final TranslationHedging hedging;
+    private final TranslationRateLimiter rateLimiter;
+    private final TranslationPreClassifier preClassifier;
+    private final SingleFlight<TranslationKey, String> inFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
     public MyTranslationService(Translate googleTranslate) {
-        this.googleTranslate = googleTranslate;
+        this(builder(googleTranslate));
+    }
+
+    private MyTranslationService(Builder builder) {
+        this.googleTranslate = builder.googleTranslate;
+        this.cache = builder.cache;
+        this.batcher = builder.batchSize > 0
+                ? new TranslationBatcher(builder.googleTranslate, builder.batchLinger, builder.batchSize,
+                        builder.rateLimiter)
+                : null;
+        this.limiter = builder.limiter;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.hedging = builder.hedgingPercentile > 0
+                ? new TranslationHedging(builder.hedgingPercentile, builder.hedgingInitialDelay, executor)
+                : null;
+        this.rateLimiter = builder.rateLimiter;
+        this.preClassifier = builder.preClassifier;
+    }
+
+    public static Builder builder(Translate googleTranslate) {
+        return new Builder(googleTranslate);
     }
 
     public String translateWithGoogle(String sentence, String targetLanguage) {
-        if (!targetLanguage.equals("ru")) {
-            throw new IllegalArgumentException("only translation to Russian is currently supported!");
+        return translateWithGoogle(sentence, targetLanguage, TranslationPriority.INTERACTIVE);
+    }
+
+    /**
+     * @param priority очередь, в которой запрос ждет квоту Google Translate API, если задан лимит
+     */
+    public String translateWithGoogle(String sentence, String targetLanguage, TranslationPriority priority) {
+        checkTargetLanguage(targetLanguage);
+        if (preClassifier != null && preClassifier.needsNoTranslation(sentence)) {
+            return sentence;
+        }
+
+        TranslationKey key = new TranslationKey(sentence, targetLanguage);
+        if (cache != null) {
+            String translation = cache.get(key);
+            if (translation != null) {
+                return translation;
+            }
+        }
+        return inFlight.run(key, () -> translateUncached(key, priority));
+    }
+
+    private String translateUncached(TranslationKey key, TranslationPriority priority) {
+        if (cache != null) {
+            // предыдущий лидер мог положить перевод в кэш между нашим промахом и входом в single-flight
+            String cached = cache.peek(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String translation = callGoogle(key.sentence(), key.targetLanguage(), priority);
+        if (cache != null) {
+            cache.put(key, translation);
+        }
+        return translation;
+    }
+
+    /**
+     * Переводит список предложений одним вызовом Google Translate API. Предложения из кэша и не требующие
+     * перевода в вызов не попадают. Порядок переводов совпадает с порядком предложений.
+     */
+    public List<String> translateAllWithGoogle(List<String> sentences, String targetLanguage, TranslationPriority priority) {
+        checkTargetLanguage(targetLanguage);
+
+        String[] translations = new String[sentences.size()];
+        List<Integer> missing = new ArrayList<>();
+        List<String> missingSentences = new ArrayList<>();
+        for (int i = 0; i < translations.length; i++) {
+            String sentence = sentences.get(i);
+            if (preClassifier != null && preClassifier.needsNoTranslation(sentence)) {
+                translations[i] = sentence;
+            } else if (cache != null) {
+                translations[i] = cache.get(new TranslationKey(sentence, targetLanguage));
+            }
+            if (translations[i] == null) {
+                missing.add(i);
+                missingSentences.add(sentence);
+            }
+        }
+
+        if (!missingSentences.isEmpty()) {
+            List<String> fetched = callGoogle(missingSentences, targetLanguage, priority);
+            for (int i = 0; i < fetched.size(); i++) {
+                translations[missing.get(i)] = fetched.get(i);
+                if (cache != null) {
+                    cache.put(new TranslationKey(missingSentences.get(i), targetLanguage), fetched.get(i));
+                }
+            }
+        }
+        return Arrays.asList(translations);
+    }
+
+    /**
+     * Асинхронный вариант {@link #translateWithGoogle(String, String)}: перевод выполняется в отдельном
+     * виртуальном потоке, вызывающий поток не блокируется. Ошибки завершают результат исключением.
+     */
+    public CompletableFuture<String> translateWithGoogleAsync(String sentence, String targetLanguage) {
+        return translateWithGoogleAsync(sentence, targetLanguage, TranslationPriority.INTERACTIVE);
+    }
+
+    public CompletableFuture<String> translateWithGoogleAsync(String sentence, String targetLanguage,
+                                                              TranslationPriority priority) {
+        return CompletableFuture.supplyAsync(() -> translateWithGoogle(sentence, targetLanguage, priority), executor);
+    }
+
+    /**
+     * Переводит документ из {@code in} в {@code out} по кускам, не загружая его в память целиком.
+     *
+     * @see DocumentTranslator
+     */
+    public void translateDocument(Reader in, Writer out, String targetLanguage) throws IOException {
+        new DocumentTranslator(this).translate(in, out, targetLanguage);
+    }
+
+    /**
+     * Квота берется до места в {@link TranslationLimiter}: иначе фоновые запросы, ждущие квоту, держали бы
+     * все места, и интерактивным было бы некуда встать. При пакетной отправке здесь списываются только символы
+     * предложения, а запрос списывает {@link TranslationBatcher} за каждый вызов API.
+     */
+    private String callGoogle(String sentence, String targetLanguage, TranslationPriority priority) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(sentence.length(), requestsPerCall(), priority);
+        }
+        Supplier<String> call = () -> callGoogleOnce(sentence, targetLanguage, priority);
+        return hedging == null ? guard(call) : callHedged(call, sentence, priority);
+    }
+
+    /**
+     * При хеджировании проигравший вызов продолжает идти после первого ответа, поэтому место в
+     * {@link TranslationLimiter} возвращается, только когда завершится сам основной вызов, а не когда
+     * вернется ответ.
+     */
+    private String callHedged(Supplier<String> call, String sentence, TranslationPriority priority) {
+        boolean[] started = new boolean[1];
+        Supplier<String> hedged = () -> {
+            started[0] = true;
+            return hedging.call(call, this::releasePermit, () -> tryAcquireHedge(sentence, priority), this::releasePermit);
+        };
+        if (limiter != null) {
+            limiter.acquire();
+        }
+        try {
+            return circuitBreaker == null ? hedged.get() : circuitBreaker.call(hedged);
+        } catch (RuntimeException ex) {
+            if (!started[0]) {
+                releasePermit();
+            }
+            throw ex;
+        }
+    }
+
+    private int requestsPerCall() {
+        return batcher == null ? 1 : 0;
+    }
+
+    /**
+     * Дубль при хеджировании — отдельный запрос к API: ему нужно свое место в лимите одновременных вызовов
+     * и своя квота, но ждать их он не должен.
+     */
+    private boolean tryAcquireHedge(String sentence, TranslationPriority priority) {
+        if (limiter != null && !limiter.tryAcquire()) {
+            return false;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire(sentence.length(), requestsPerCall(), priority)) {
+            releasePermit();
+            return false;
+        }
+        return true;
+    }
+
+    private void releasePermit() {
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+
+    private List<String> callGoogle(List<String> sentences, String targetLanguage, TranslationPriority priority) {
+        int chars = 0;
+        for (String sentence : sentences) {
+            chars += sentence.length();
+        }
+        if (rateLimiter != null) {
+            rateLimiter.acquire(chars, priority);
         }
+        return guard(() -> callGoogleOnce(sentences, targetLanguage));
+    }
 
+    private <T> T guard(Supplier<T> call) {
+        Supplier<T> guarded = circuitBreaker == null ? call : () -> circuitBreaker.call(call);
+        return limiter == null ? guarded.get() : limiter.call(guarded);
+    }
+
+    private String callGoogleOnce(String sentence, String targetLanguage, TranslationPriority priority) {
+        if (batcher != null) {
+            return batcher.translate(sentence, targetLanguage, priority);
+        }
         try {
             Translation translation = googleTranslate.translate(sentence, Translate.TranslateOption.targetLanguage(targetLanguage));
             return translation.getTranslatedText();
@@ -22,4 +235,137 @@ public class MyTranslationService {
             throw new MyTranslationServiceException("Exception while calling Google Translate API", ex);
         }
     }
-}
\ No newline at end of file
+
+    private List<String> callGoogleOnce(List<String> sentences, String targetLanguage) {
+        List<Translation> translations;
+        try {
+            translations = googleTranslate.translate(sentences, Translate.TranslateOption.targetLanguage(targetLanguage));
+        } catch (Exception ex) {
+            throw new MyTranslationServiceException("Exception while calling Google Translate API", ex);
+        }
+        if (translations == null || translations.size() != sentences.size()) {
+            throw new MyTranslationServiceException("Google Translate API returned an incomplete batch", null);
+        }
+        List<String> texts = new ArrayList<>(translations.size());
+        for (Translation translation : translations) {
+            texts.add(translation.getTranslatedText());
+        }
+        return texts;
+    }
+
+    private static void checkTargetLanguage(String targetLanguage) {
+        if (!targetLanguage.equals("ru")) {
+            throw new IllegalArgumentException("only translation to Russian is currently supported!");
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    public static class Builder {
+        private final Translate googleTranslate;
+        private TranslationCache cache;
+        private Duration batchLinger;
+        private int batchSize;
+        private TranslationLimiter limiter;
+        private CircuitBreaker circuitBreaker;
+        private double hedgingPercentile;
+        private Duration hedgingInitialDelay;
+        private TranslationRateLimiter rateLimiter;
+        private TranslationPreClassifier preClassifier;
+
+        private Builder(Translate googleTranslate) {
+            this.googleTranslate = googleTranslate;
+        }
+
+        /**
+         * Кэш готовых переводов; повторные предложения не отправляются в Google Translate API.
+         */
+        public Builder cache(TranslationCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Объединяет одновременные запросы в пакеты: пакет уходит в Google Translate API через {@code linger}
+         * после первого запроса или как только в нем наберется {@code maxBatchSize} предложений.
+         */
+        public Builder batching(Duration linger, int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("batch size must be positive");
+            }
+            this.batchLinger = linger;
+            this.batchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Не больше {@code maxInFlight} одновременных вызовов Google Translate API; еще {@code maxQueued}
+         * вызовов ждут своей очереди, остальные сразу отклоняются с {@link MyTranslationServiceException}.
+         */
+        public Builder concurrency(int maxInFlight, int maxQueued) {
+            this.limiter = new TranslationLimiter(maxInFlight, maxQueued);
+            return this;
+        }
+
+        /**
+         * Если Google Translate API не ответил за {@code percentile} времени последних ответов, отправляется
+         * повторный запрос и берется первый успешный ответ. До накопления замеров ждем {@code initialDelay}.
+         */
+        public Builder hedging(double percentile, Duration initialDelay) {
+            if (percentile <= 0 || percentile >= 1) {
+                throw new IllegalArgumentException("percentile must be in (0, 1)");
+            }
+            this.hedgingPercentile = percentile;
+            this.hedgingInitialDelay = initialDelay;
+            return this;
+        }
+
+        /**
+         * После {@code failureThreshold} ошибок подряд вызовы Google Translate API сразу завершаются
+         * {@link MyTranslationServiceException} в течение {@code openDuration}.
+         */
+        public Builder circuitBreaker(int failureThreshold, Duration openDuration) {
+            return circuitBreaker(new CircuitBreaker(failureThreshold, openDuration));
+        }
+
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Квота Google Translate API: не больше {@code charsPerSecond} символов и {@code requestsPerSecond}
+         * запросов в секунду, интерактивные запросы обслуживаются раньше пакетных.
+         */
+        public Builder rateLimit(double charsPerSecond, double requestsPerSecond) {
+            return rateLimiter(new TranslationRateLimiter(charsPerSecond, requestsPerSecond));
+        }
+
+        /**
+         * Общий лимит квоты, например один на несколько сервисов в процессе.
+         */
+        public Builder rateLimiter(TranslationRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Пустые строки, текст без букв, артикулы и текст на кириллице возвращаются без вызова
+         * Google Translate API.
+         */
+        public Builder preClassifier(TranslationPreClassifier preClassifier) {
+            this.preClassifier = preClassifier;
+            return this;
+        }
+
+        public MyTranslationService build() {
+            return new MyTranslationService(this);
+        }
+    }
+}
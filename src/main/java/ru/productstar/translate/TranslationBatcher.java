@@ -0,0 +1,213 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.Translation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Собирает одновременные запросы на перевод в пакеты и отправляет их одним вызовом
+ * {@link Translate#translate(List, Translate.TranslateOption...)}.
+ * <p>
+ * Пакет отправляется, когда с первого запроса прошло {@code linger} или набралось {@code maxBatchSize} предложений.
+ * Если пакетный вызов завершился ошибкой, все запросы пакета завершаются {@link MyTranslationServiceException}
+ * с этой ошибкой: повторять каждое предложение отдельным вызовом, когда API и так отказывает, значит умножать
+ * нагрузку на него. По одному предложения переводятся, только если API ответил, но вернул не столько переводов,
+ * сколько было предложений.
+ * <p>
+ * Если задан {@link TranslationRateLimiter}, перед каждым вызовом API списывается один запрос в очереди
+ * самого срочного запроса пакета. Символы списывает вызывающий за каждое свое предложение.
+ */
+public class TranslationBatcher implements AutoCloseable {
+    private final Translate googleTranslate;
+    private final long lingerNanos;
+    private final int maxBatchSize;
+    private final TranslationRateLimiter rateLimiter;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+    private volatile boolean closed;
+
+    public TranslationBatcher(Translate googleTranslate, Duration linger, int maxBatchSize) {
+        this(googleTranslate, linger, maxBatchSize, null);
+    }
+
+    /**
+     * @param rateLimiter квота на число запросов к API или {@code null}
+     */
+    public TranslationBatcher(Translate googleTranslate, Duration linger, int maxBatchSize,
+                              TranslationRateLimiter rateLimiter) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        this.googleTranslate = googleTranslate;
+        this.lingerNanos = linger.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.rateLimiter = rateLimiter;
+        this.collector = Thread.ofPlatform().name("translation-batcher").daemon().start(this::collect);
+    }
+
+    public String translate(String sentence, String targetLanguage) {
+        return translate(sentence, targetLanguage, TranslationPriority.INTERACTIVE);
+    }
+
+    public String translate(String sentence, String targetLanguage, TranslationPriority priority) {
+        try {
+            return submit(sentence, targetLanguage, priority).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof MyTranslationServiceException translationException) {
+                throw translationException;
+            }
+            throw new MyTranslationServiceException("Exception while calling Google Translate API", ex.getCause());
+        }
+    }
+
+    public CompletableFuture<String> submit(String sentence, String targetLanguage) {
+        return submit(sentence, targetLanguage, TranslationPriority.INTERACTIVE);
+    }
+
+    public CompletableFuture<String> submit(String sentence, String targetLanguage, TranslationPriority priority) {
+        Pending pending = new Pending(sentence, targetLanguage, priority);
+        if (closed) {
+            pending.result.completeExceptionally(closedException());
+            return pending.result;
+        }
+        queue.add(pending);
+        if (closed && queue.remove(pending)) {
+            pending.result.completeExceptionally(closedException());
+        }
+        return pending.result;
+    }
+
+    private void collect() {
+        List<Pending> batch = new ArrayList<>();
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                List<Pending> ready = batch;
+                dispatcher.execute(() -> dispatch(ready));
+                batch = new ArrayList<>();
+            }
+        } catch (InterruptedException ex) {
+            if (!batch.isEmpty()) {
+                List<Pending> ready = batch;
+                dispatcher.execute(() -> dispatch(ready));
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        Map<String, List<Pending>> byLanguage = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byLanguage.computeIfAbsent(pending.targetLanguage, language -> new ArrayList<>()).add(pending);
+        }
+        byLanguage.forEach(this::dispatch);
+    }
+
+    private void dispatch(String targetLanguage, List<Pending> batch) {
+        List<String> sentences = new ArrayList<>(batch.size());
+        TranslationPriority priority = TranslationPriority.BULK;
+        for (Pending pending : batch) {
+            sentences.add(pending.sentence);
+            if (pending.priority.compareTo(priority) < 0) {
+                priority = pending.priority;
+            }
+        }
+
+        List<Translation> translations;
+        try {
+            acquireRequest(priority);
+            translations = googleTranslate.translate(sentences, Translate.TranslateOption.targetLanguage(targetLanguage));
+        } catch (Exception ex) {
+            MyTranslationServiceException failure =
+                    new MyTranslationServiceException("Exception while calling Google Translate API", ex);
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(failure);
+            }
+            return;
+        }
+
+        if (translations == null || translations.size() != batch.size()) {
+            batch.forEach(this::translateOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                batch.get(i).result.complete(translations.get(i).getTranslatedText());
+            } catch (Exception ex) {
+                batch.get(i).result.completeExceptionally(
+                        new MyTranslationServiceException("Exception while calling Google Translate API", ex));
+            }
+        }
+    }
+
+    private void translateOne(Pending pending) {
+        try {
+            acquireRequest(pending.priority);
+            Translation translation = googleTranslate.translate(pending.sentence,
+                    Translate.TranslateOption.targetLanguage(pending.targetLanguage));
+            pending.result.complete(translation.getTranslatedText());
+        } catch (Exception ex) {
+            pending.result.completeExceptionally(
+                    new MyTranslationServiceException("Exception while calling Google Translate API", ex));
+        }
+    }
+
+    private void acquireRequest(TranslationPriority priority) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(0, 1, priority);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+        try {
+            collector.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+            pending.result.completeExceptionally(closedException());
+        }
+        dispatcher.close();
+    }
+
+    private static MyTranslationServiceException closedException() {
+        return new MyTranslationServiceException("Translation batcher is closed", null);
+    }
+
+    private static final class Pending {
+        private final String sentence;
+        private final String targetLanguage;
+        private final TranslationPriority priority;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Pending(String sentence, String targetLanguage, TranslationPriority priority) {
+            this.sentence = sentence;
+            this.targetLanguage = targetLanguage;
+            this.priority = priority;
+        }
+    }
+}
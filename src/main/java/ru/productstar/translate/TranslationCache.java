@@ -0,0 +1,21 @@
+package ru.productstar.translate;
+
+/**
+ * Кэш готовых переводов перед вызовом Google Translate API.
+ */
+public interface TranslationCache {
+    /**
+     * @return сохраненный перевод или {@code null}, если его нет в кэше
+     */
+    String get(TranslationKey key);
+
+    /**
+     * То же, что {@link #get(TranslationKey)}, но без учета в статистике попаданий и промахов. Используется
+     * для повторной проверки кэша перед вызовом API, которая не должна считаться вторым промахом.
+     */
+    default String peek(TranslationKey key) {
+        return get(key);
+    }
+
+    void put(TranslationKey key, String translation);
+}
@@ -0,0 +1,172 @@
+package ru.productstar.translate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Дублирует медленный вызов Google Translate API и берет первый успешный ответ.
+ * <p>
+ * Если вызов не ответил за задержку, равную заданному перцентилю времени последних вызовов, запускается
+ * второй такой же вызов. Пока замеров мало, используется начальная задержка. Если основной вызов завершился
+ * ошибкой раньше задержки, ошибка возвращается сразу, без дубля; после отправки дубля ошибка возвращается,
+ * только если ошибкой завершились оба вызова.
+ * <p>
+ * Дубль — это еще один запрос к API, поэтому для него нужно отдельно занять ресурсы, например место
+ * в {@link TranslationLimiter}. Если занять их без ожидания не удалось, дубль не отправляется
+ * и ждем основной вызов. Проигравший вызов не отменяется, поэтому ресурсы каждого вызова освобождаются,
+ * когда завершится сам вызов, а не когда получен первый ответ. В замеры времени попадает только сам вызов,
+ * который передан в {@link #call}.
+ */
+public class TranslationHedging {
+    private static final int SAMPLES = 256;
+    private static final int RECALCULATE_EVERY = 16;
+
+    private final double percentile;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final long[] samples = new long[SAMPLES];
+    private int recorded;
+    private volatile long delayNanos;
+
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * @param percentile   перцентиль времени ответа от 0 до 1, после которого отправляется дубль
+     * @param initialDelay задержка до накопления замеров
+     */
+    public TranslationHedging(double percentile, Duration initialDelay, Executor executor) {
+        this(percentile, initialDelay, executor, System::nanoTime);
+    }
+
+    TranslationHedging(double percentile, Duration initialDelay, Executor executor, LongSupplier clock) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1)");
+        }
+        this.percentile = percentile;
+        this.delayNanos = initialDelay.toNanos();
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public String call(Supplier<String> call) {
+        Runnable none = () -> {
+        };
+        return call(call, none, () -> true, none);
+    }
+
+    /**
+     * @param releasePrimary  освобождает ресурсы, занятые вызывающим для основного вызова, после его завершения;
+     *                        вызывается ровно один раз
+     * @param tryAcquireHedge занимает ресурсы для дубля без ожидания; {@code false}, если их нет
+     * @param releaseHedge    освобождает ресурсы, занятые для дубля, после его завершения
+     */
+    public String call(Supplier<String> call, Runnable releasePrimary,
+                       BooleanSupplier tryAcquireHedge, Runnable releaseHedge) {
+        CompletableFuture<String> primary;
+        try {
+            primary = attempt(call);
+        } catch (RuntimeException ex) {
+            releasePrimary.run();
+            throw ex;
+        }
+        primary.whenComplete((translation, ex) -> releasePrimary.run());
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // дубль отправляется ниже
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MyTranslationServiceException("Interrupted while waiting for Google Translate API", ex);
+        }
+
+        CompletableFuture<String> result;
+        if (tryAcquireHedge.getAsBoolean()) {
+            hedged.increment();
+            CompletableFuture<String> hedge = attempt(call);
+            hedge.whenComplete((translation, ex) -> releaseHedge.run());
+            result = firstSuccessful(primary, hedge);
+        } else {
+            skipped.increment();
+            result = primary;
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    /**
+     * Сколько раз дубль был нужен, но не отправлен, потому что для него не нашлось ресурсов.
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    private CompletableFuture<String> attempt(Supplier<String> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = clock.getAsLong();
+            String result = call.get();
+            record(clock.getAsLong() - start);
+            return result;
+        }, executor);
+    }
+
+    private synchronized void record(long latencyNanos) {
+        samples[recorded % SAMPLES] = latencyNanos;
+        recorded++;
+        if (recorded % RECALCULATE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(samples, Math.min(recorded, SAMPLES));
+            Arrays.sort(sorted);
+            delayNanos = sorted[(int) Math.min(sorted.length - 1, (long) (percentile * sorted.length))];
+        }
+    }
+
+    private static CompletableFuture<String> firstSuccessful(CompletableFuture<String> first, CompletableFuture<String> second) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        for (CompletableFuture<String> attempt : Arrays.asList(first, second)) {
+            attempt.whenComplete((translation, ex) -> {
+                if (ex == null) {
+                    result.complete(translation);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new MyTranslationServiceException("Exception while calling Google Translate API", cause);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.productstar.translate;
+
+/**
+ * Ключ перевода: исходное предложение и язык, на который его переводят.
+ */
+public record TranslationKey(String sentence, String targetLanguage) {
+}
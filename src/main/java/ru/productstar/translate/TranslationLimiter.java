@@ -0,0 +1,90 @@
+package ru.productstar.translate;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ограничивает число одновременных вызовов Google Translate API.
+ * <p>
+ * Вызов сверх {@code maxInFlight} ждет освобождения места в очереди длиной {@code maxQueued};
+ * если очередь тоже заполнена, вызов сразу отклоняется с {@link MyTranslationServiceException},
+ * а не копится без ограничений. Ожидание рассчитано на виртуальные потоки: они паркуются на семафоре,
+ * не занимая поток платформы.
+ */
+public class TranslationLimiter {
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    public TranslationLimiter(int maxInFlight, int maxQueued) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("in-flight limit must be positive");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("queue length must not be negative");
+        }
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+    }
+
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Занимает место без ожидания и без очереди.
+     *
+     * @return {@code false}, если свободных мест нет; место нужно вернуть через {@link #release()}
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Занимает место, как {@link #call}, но освобождать его через {@link #release()} должен вызывающий,
+     * например когда вызов завершается в другом потоке.
+     */
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new MyTranslationServiceException("Too many concurrent translation requests", null);
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MyTranslationServiceException("Interrupted while waiting for Google Translate API", ex);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public int getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.productstar.translate;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Находит текст, который не нужно отправлять в Google Translate API при переводе на русский язык:
+ * пустые строки, текст без букв (числа, цены, телефоны), артикулы и текст, который уже написан кириллицей.
+ * <p>
+ * Текст проверяется за один проход по кодовым точкам, без регулярных выражений и без выделения памяти.
+ * Для каждой категории считается, сколько вызовов API удалось избежать.
+ */
+public class TranslationPreClassifier {
+    public enum Category {
+        /**
+         * Текст нужно переводить.
+         */
+        TRANSLATE,
+        /**
+         * Пустая строка или только пробелы.
+         */
+        EMPTY,
+        /**
+         * Нет ни одной буквы: числа, цены, телефоны, знаки препинания.
+         */
+        NO_LETTERS,
+        /**
+         * Артикул: без пробелов, есть цифры, буквы только заглавные латинские, разделители {@code - _ . / #}.
+         */
+        SKU,
+        /**
+         * Все буквы кириллические.
+         */
+        CYRILLIC
+    }
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final LongAdder[] counters = new LongAdder[CATEGORIES.length];
+
+    public TranslationPreClassifier() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Категория текста без учета в счетчиках.
+     */
+    public static Category classify(CharSequence text) {
+        boolean hasLetter = false;
+        boolean hasDigit = false;
+        boolean hasWhitespace = false;
+        boolean blank = true;
+        boolean allCyrillic = true;
+        boolean skuChars = true;
+
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+
+            if (Character.isLetter(codePoint)) {
+                hasLetter = true;
+                if (codePoint < '\u0400' || Character.UnicodeScript.of(codePoint) != Character.UnicodeScript.CYRILLIC) {
+                    allCyrillic = false;
+                }
+                if (codePoint < 'A' || codePoint > 'Z') {
+                    skuChars = false;
+                }
+            } else if (Character.isDigit(codePoint)) {
+                hasDigit = true;
+                if (codePoint > '9') {
+                    skuChars = false;
+                }
+            } else if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                hasWhitespace = true;
+                continue;
+            } else if (!isSkuSeparator(codePoint)) {
+                skuChars = false;
+            }
+            blank = false;
+        }
+
+        if (!hasLetter) {
+            return blank ? Category.EMPTY : Category.NO_LETTERS;
+        }
+        if (allCyrillic) {
+            return Category.CYRILLIC;
+        }
+        if (skuChars && hasDigit && !hasWhitespace) {
+            return Category.SKU;
+        }
+        return Category.TRANSLATE;
+    }
+
+    /**
+     * @return {@code true}, если текст можно вернуть без перевода; такой вызов учитывается в счетчиках
+     */
+    public boolean needsNoTranslation(CharSequence text) {
+        Category category = classify(text);
+        counters[category.ordinal()].increment();
+        return category != Category.TRANSLATE;
+    }
+
+    public long getCount(Category category) {
+        return counters[category.ordinal()].sum();
+    }
+
+    /**
+     * Сколько вызовов Google Translate API не понадобилось.
+     */
+    public long getAvoidedCount() {
+        long avoided = 0;
+        for (Category category : CATEGORIES) {
+            if (category != Category.TRANSLATE) {
+                avoided += counters[category.ordinal()].sum();
+            }
+        }
+        return avoided;
+    }
+
+    private static boolean isSkuSeparator(int codePoint) {
+        return codePoint == '-' || codePoint == '_' || codePoint == '.' || codePoint == '/' || codePoint == '#';
+    }
+}
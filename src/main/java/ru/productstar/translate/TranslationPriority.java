@@ -0,0 +1,10 @@
+package ru.productstar.translate;
+
+/**
+ * Очередность запросов к Google Translate API при нехватке квоты: интерактивные запросы обслуживаются
+ * раньше фоновых пакетных задач.
+ */
+public enum TranslationPriority {
+    INTERACTIVE,
+    BULK
+}
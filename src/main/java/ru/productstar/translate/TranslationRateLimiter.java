@@ -0,0 +1,216 @@
+package ru.productstar.translate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничивает запросы к Google Translate API квотой на символы и запросы в секунду.
+ * <p>
+ * Каждая квота — это корзина токенов емкостью в одну секунду бюджета, которая пополняется непрерывно.
+ * Запрос ждет, пока в обеих корзинах хватит токенов; запрос длиннее емкости корзины забирает ее целиком
+ * и уводит в долг. Ожидающие обслуживаются по очереди, и пока есть ожидающие
+ * {@link TranslationPriority#INTERACTIVE}, запросы {@link TranslationPriority#BULK} не получают токены.
+ * Для каждой очереди считается, сколько раз и как долго вызывающие ждали разрешения.
+ */
+public class TranslationRateLimiter {
+    private static final TranslationPriority[] PRIORITIES = TranslationPriority.values();
+
+    private final double charsPerNano;
+    private final double requestsPerNano;
+    private final double charCapacity;
+    private final double requestCapacity;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Waiter>[] lanes;
+
+    private double chars;
+    private double requests;
+    private long refilledAt;
+
+    private final LongAdder[] waits = new LongAdder[PRIORITIES.length];
+    private final LongAdder[] waitNanos = new LongAdder[PRIORITIES.length];
+    private final LongAccumulator[] maxWaitNanos = new LongAccumulator[PRIORITIES.length];
+
+    public TranslationRateLimiter(double charsPerSecond, double requestsPerSecond) {
+        this(charsPerSecond, requestsPerSecond, System::nanoTime);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TranslationRateLimiter(double charsPerSecond, double requestsPerSecond, LongSupplier clock) {
+        if (!(charsPerSecond > 0) || !(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("rate limits must be positive");
+        }
+        this.charsPerNano = charsPerSecond / 1e9;
+        this.requestsPerNano = requestsPerSecond / 1e9;
+        this.charCapacity = Math.max(1, charsPerSecond);
+        this.requestCapacity = Math.max(1, requestsPerSecond);
+        this.clock = clock;
+        this.chars = charCapacity;
+        this.requests = requestCapacity;
+        this.refilledAt = clock.getAsLong();
+
+        this.lanes = new Deque[PRIORITIES.length];
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes[i] = new ArrayDeque<>();
+            waits[i] = new LongAdder();
+            waitNanos[i] = new LongAdder();
+            maxWaitNanos[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    /**
+     * Ждет токены на один запрос из {@code charCount} символов.
+     */
+    public void acquire(int charCount, TranslationPriority priority) {
+        acquire(charCount, 1, priority);
+    }
+
+    /**
+     * Ждет токены на {@code charCount} символов и {@code requestCount} запросов. Символы и запросы можно
+     * списывать по отдельности, например символы за каждое предложение, а запрос за общий пакетный вызов.
+     */
+    public void acquire(int charCount, int requestCount, TranslationPriority priority) {
+        long start = clock.getAsLong();
+        Deque<Waiter> lane = lanes[priority.ordinal()];
+        Waiter waiter = new Waiter(lane, Math.min(charCount, charCapacity), charCount, requestCount);
+
+        lock.lock();
+        try {
+            lane.addLast(waiter);
+            while (!tryTake(waiter)) {
+                long waitNanos = isNext(waiter) ? nanosUntilAvailable(waiter) : Long.MAX_VALUE;
+                if (waitNanos == Long.MAX_VALUE) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waitNanos);
+                }
+            }
+        } catch (InterruptedException ex) {
+            lane.remove(waiter);
+            changed.signalAll();
+            Thread.currentThread().interrupt();
+            throw new MyTranslationServiceException("Interrupted while waiting for Google Translate quota", ex);
+        } finally {
+            lock.unlock();
+        }
+
+        long waited = clock.getAsLong() - start;
+        waits[priority.ordinal()].increment();
+        waitNanos[priority.ordinal()].add(waited);
+        maxWaitNanos[priority.ordinal()].accumulate(waited);
+    }
+
+    /**
+     * Забирает токены на один запрос из {@code charCount} символов, только если их хватает сразу и никто
+     * не ждет в очереди.
+     *
+     * @return {@code false}, если токены не взяты
+     */
+    public boolean tryAcquire(int charCount, TranslationPriority priority) {
+        return tryAcquire(charCount, 1, priority);
+    }
+
+    public boolean tryAcquire(int charCount, int requestCount, TranslationPriority priority) {
+        lock.lock();
+        try {
+            for (Deque<Waiter> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+            refill();
+            if (chars < Math.min(charCount, charCapacity) || requests < requestCount) {
+                return false;
+            }
+            chars -= charCount;
+            requests -= requestCount;
+        } finally {
+            lock.unlock();
+        }
+        waits[priority.ordinal()].increment();
+        return true;
+    }
+
+    public long getAcquireCount(TranslationPriority priority) {
+        return waits[priority.ordinal()].sum();
+    }
+
+    public Duration getTotalWait(TranslationPriority priority) {
+        return Duration.ofNanos(waitNanos[priority.ordinal()].sum());
+    }
+
+    public Duration getMaxWait(TranslationPriority priority) {
+        return Duration.ofNanos(maxWaitNanos[priority.ordinal()].get());
+    }
+
+    public int getWaitingCount(TranslationPriority priority) {
+        lock.lock();
+        try {
+            return lanes[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryTake(Waiter waiter) {
+        if (!isNext(waiter)) {
+            return false;
+        }
+        refill();
+        if (chars < waiter.required || requests < waiter.requestCount) {
+            return false;
+        }
+        chars -= waiter.charCount;
+        requests -= waiter.requestCount;
+        waiter.lane.removeFirst();
+        changed.signalAll();
+        return true;
+    }
+
+    private boolean isNext(Waiter waiter) {
+        for (Deque<Waiter> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return lane.peekFirst() == waiter;
+            }
+        }
+        return false;
+    }
+
+    private long nanosUntilAvailable(Waiter waiter) {
+        double charNanos = (waiter.required - chars) / charsPerNano;
+        double requestNanos = (waiter.requestCount - requests) / requestsPerNano;
+        return Math.max(1, (long) Math.ceil(Math.max(charNanos, requestNanos)));
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            chars = Math.min(charCapacity, chars + elapsed * charsPerNano);
+            requests = Math.min(requestCapacity, requests + elapsed * requestsPerNano);
+            refilledAt = now;
+        }
+    }
+
+    private static final class Waiter {
+        private final Deque<Waiter> lane;
+        private final double required;
+        private final int charCount;
+        private final int requestCount;
+
+        Waiter(Deque<Waiter> lane, double required, int charCount, int requestCount) {
+            this.lane = lane;
+            this.required = required;
+            this.charCount = charCount;
+            this.requestCount = requestCount;
+        }
+    }
+}
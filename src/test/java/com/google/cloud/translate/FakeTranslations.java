@@ -0,0 +1,30 @@
+package com.google.cloud.translate;
+
+import com.google.api.services.translate.model.TranslationsResource;
+
+/**
+ * Доступ к закрытым для пакета частям клиента Google Translate, нужный поддельной реализации {@link Translate}.
+ */
+public final class FakeTranslations {
+    private FakeTranslations() {
+    }
+
+    public static Translation translation(String translatedText, String sourceLanguage) {
+        return Translation.fromPb(new TranslationsResource()
+                .setTranslatedText(translatedText)
+                .setDetectedSourceLanguage(sourceLanguage));
+    }
+
+    /**
+     * @return целевой язык из опций запроса или {@code null}, если он не задан
+     */
+    public static String targetLanguage(Translate.TranslateOption... options) {
+        for (Translate.TranslateOption option : options) {
+            String value = String.valueOf(option.getValue());
+            if (option.equals(Translate.TranslateOption.targetLanguage(value))) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,167 @@
+package ru.productstar.delivery;
+
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeliveryCostBatchTests {
+    private static final int ROWS = 3 * DeliveryCostBatch.PARALLEL_THRESHOLD + 17;
+
+    private final byte[] distances = new byte[ROWS];
+    private final byte[] cargoSizes = new byte[ROWS];
+    private final byte[] cargoFragilities = new byte[ROWS];
+    private final byte[] workloads = new byte[ROWS];
+
+    public DeliveryCostBatchTests() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            distances[i] = (byte) random.nextInt(Distance.values().length);
+            cargoSizes[i] = (byte) random.nextInt(CargoSize.values().length);
+            cargoFragilities[i] = (byte) random.nextInt(CargoFragility.values().length);
+            workloads[i] = (byte) random.nextInt(DeliveryServiceWorkload.values().length);
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетный расчет стоимости доставки из массивов.")
+    @Description("Данный тест проверяет, что пакетный расчет по колонкам совпадает с расчетом по одной доставке.")
+    @Tag("deliveryCostBatch")
+    public void test_calculate_Arrays_ShouldMatchScalarPath() {
+        double[] costs = new double[ROWS];
+        long[] forbidden = new long[DeliveryCostBatch.bitmapLength(ROWS)];
+
+        int forbiddenRows = new DeliveryCostBatch().calculate(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden);
+
+        assertMatchesScalarPath(costs, forbidden, forbiddenRows);
+    }
+
+    @Test
+    @DisplayName("Пакетный расчет с переиспользованной битовой картой.")
+    @Description("Данный тест проверяет, что биты, выставленные предыдущим пакетом, сбрасываются для разрешенных строк.")
+    @Tag("deliveryCostBatch")
+    public void test_calculate_ReusedBitmap_ShouldMatchScalarPath() {
+        DeliveryCostBatch batch = new DeliveryCostBatch();
+        double[] costs = new double[ROWS];
+        long[] forbidden = new long[DeliveryCostBatch.bitmapLength(ROWS)];
+        Arrays.fill(forbidden, -1L);
+
+        int forbiddenRows = batch.calculate(distances, cargoSizes, cargoFragilities, workloads, costs, forbidden);
+        assertMatchesScalarPath(costs, forbidden, forbiddenRows);
+
+        long[] kopecks = new long[ROWS];
+        Arrays.fill(forbidden, -1L);
+        batch.calculateKopecksParallel(distances, cargoSizes, cargoFragilities, workloads, kopecks, forbidden,
+                ForkJoinPool.commonPool());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(kopecks[i] == TariffTable.FORBIDDEN_KOPECKS, DeliveryCostBatch.isForbidden(forbidden, i));
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетный расчет стоимости доставки из ByteBuffer.")
+    @Description("Данный тест проверяет, что пакетный расчет по колонкам из ByteBuffer совпадает с расчетом по одной доставке.")
+    @Tag("deliveryCostBatch")
+    public void test_calculate_ByteBuffers_ShouldMatchScalarPath() {
+        double[] costs = new double[ROWS];
+        long[] forbidden = new long[DeliveryCostBatch.bitmapLength(ROWS)];
+
+        int forbiddenRows = new DeliveryCostBatch().calculate(
+                ByteBuffer.wrap(distances), ByteBuffer.wrap(cargoSizes),
+                ByteBuffer.wrap(cargoFragilities), ByteBuffer.wrap(workloads),
+                costs, forbidden);
+
+        assertMatchesScalarPath(costs, forbidden, forbiddenRows);
+    }
+
+    @Test
+    @DisplayName("Параллельный пакетный расчет стоимости доставки.")
+    @Description("Данный тест проверяет, что пакетный расчет, разделенный на части в ForkJoinPool, совпадает с расчетом по одной доставке.")
+    @Tag("deliveryCostBatch")
+    public void test_calculateParallel_ShouldMatchScalarPath() {
+        double[] costs = new double[ROWS];
+        long[] forbidden = new long[DeliveryCostBatch.bitmapLength(ROWS)];
+
+        int forbiddenRows = new DeliveryCostBatch().calculateParallel(distances, cargoSizes, cargoFragilities, workloads,
+                costs, forbidden, ForkJoinPool.commonPool());
+
+        assertMatchesScalarPath(costs, forbidden, forbiddenRows);
+    }
+
+    @Test
+    @DisplayName("Пакетный расчет стоимости доставки в копейках.")
+    @Description("Данный тест проверяет, что пакетный расчет в копейках совпадает с расчетом в копейках по одной доставке.")
+    @Tag("deliveryCostBatch")
+    public void test_calculateKopecksParallel_ShouldMatchScalarPath() {
+        long[] costs = new long[ROWS];
+        long[] forbidden = new long[DeliveryCostBatch.bitmapLength(ROWS)];
+
+        int forbiddenRows = new DeliveryCostBatch().calculateKopecksParallel(distances, cargoSizes, cargoFragilities, workloads,
+                costs, forbidden, ForkJoinPool.commonPool());
+
+        int expectedForbiddenRows = 0;
+        for (int i = 0; i < ROWS; i++) {
+            try {
+                long expected = DeliveryCost.calculateDeliveryCostKopecks(Distance.values()[distances[i]],
+                        CargoSize.values()[cargoSizes[i]],
+                        CargoFragility.values()[cargoFragilities[i]],
+                        DeliveryServiceWorkload.values()[workloads[i]]);
+                assertEquals(expected, costs[i]);
+                assertFalse(DeliveryCostBatch.isForbidden(forbidden, i));
+            } catch (DeliveryIsForbiddenException ex) {
+                assertEquals(TariffTable.FORBIDDEN_KOPECKS, costs[i]);
+                assertTrue(DeliveryCostBatch.isForbidden(forbidden, i));
+                expectedForbiddenRows++;
+            }
+        }
+        assertEquals(expectedForbiddenRows, forbiddenRows);
+    }
+
+    @Test
+    @DisplayName("Некорректный порядковый номер в пакете.")
+    @Description("Данный тест проверяет, что пакетный расчет отклоняет порядковые номера за пределами перечислений.")
+    @Tag("deliveryCostBatch")
+    public void test_calculate_InvalidOrdinal_ShouldThrow_IllegalArgumentException() {
+        byte[] invalid = {(byte) Distance.values().length};
+        byte[] zero = {0};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeliveryCostBatch().calculate(invalid, zero, zero, zero, new double[1], new long[1]));
+    }
+
+    private void assertMatchesScalarPath(double[] costs, long[] forbidden, int forbiddenRows) {
+        Distance[] distanceValues = Distance.values();
+        CargoSize[] cargoSizeValues = CargoSize.values();
+        CargoFragility[] cargoFragilityValues = CargoFragility.values();
+        DeliveryServiceWorkload[] workloadValues = DeliveryServiceWorkload.values();
+
+        int expectedForbiddenRows = 0;
+        for (int i = 0; i < ROWS; i++) {
+            Distance distance = distanceValues[distances[i]];
+            CargoSize cargoSize = cargoSizeValues[cargoSizes[i]];
+            CargoFragility cargoFragility = cargoFragilityValues[cargoFragilities[i]];
+            DeliveryServiceWorkload workload = workloadValues[workloads[i]];
+            try {
+                double expected = DeliveryCost.calculateDeliveryCost(distance, cargoSize, cargoFragility, workload);
+                assertEquals(expected, costs[i]);
+                assertFalse(DeliveryCostBatch.isForbidden(forbidden, i));
+            } catch (DeliveryIsForbiddenException ex) {
+                assertTrue(Double.isNaN(costs[i]));
+                assertTrue(DeliveryCostBatch.isForbidden(forbidden, i));
+                expectedForbiddenRows++;
+            }
+        }
+        assertEquals(expectedForbiddenRows, forbiddenRows);
+    }
+}
@@ -17,7 +17,9 @@ import ru.productstar.delivery.dicts.Distance;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.productstar.delivery.dicts.Distance.*;
 import static ru.productstar.delivery.dicts.CargoFragility.*;
 import static ru.productstar.delivery.dicts.CargoSize.*;
@@ -108,6 +110,19 @@ public class DeliveryCostTests {
                 () -> DeliveryCost.calculateDeliveryCost(OVER_30_KM, SMALL_CARGO, FRAGILE, LOW_WORKLOAD));
     }
 
+    @Test
+    @DisplayName("Котировка для хрупкого груза при дистанции более 30 км.")
+    @Description("Данный тест проверяет, что котировка запрещенной доставки возвращает причину отказа без исключения и без создания новых объектов.")
+    @Tag("fragile")
+    public void test_quote_FragileCargo_over30Km_ShouldReturnRejectedQuote() {
+        DeliveryQuote quote = DeliveryCost.quote(OVER_30_KM, SMALL_CARGO, FRAGILE, LOW_WORKLOAD);
+
+        assertTrue(quote.isForbidden());
+        assertEquals(DeliveryQuote.Reason.FRAGILE_CARGO_OVER_30_KM, quote.getReason());
+        assertTrue(Double.isNaN(quote.getCost()));
+        assertSame(quote, DeliveryCost.quote(OVER_30_KM, SMALL_CARGO, FRAGILE, LOW_WORKLOAD));
+    }
+
     @ParameterizedTest
     @MethodSource("provideArgumentsForCalculateDeliveryCostTest")
     @DisplayName("Общая стоимость доставки.")
@@ -0,0 +1,58 @@
+package ru.productstar.delivery;
+
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinorUnitsTests {
+    @Test
+    @DisplayName("Целочисленное деление с округлением.")
+    @Description("Данный тест проверяет, что целочисленное деление округляет так же, как BigDecimal, для всех режимов округления.")
+    @Tag("minorUnits")
+    public void test_divide_ShouldMatchBigDecimal() {
+        long[] divisors = {2, 3, 7, 10, 10_000, -4};
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long dividend = -250; dividend <= 250; dividend++) {
+                for (long divisor : divisors) {
+                    long expected = BigDecimal.valueOf(dividend)
+                            .divide(BigDecimal.valueOf(divisor), 0, roundingMode)
+                            .longValueExact();
+                    assertEquals(expected, MinorUnits.divide(dividend, divisor, roundingMode),
+                            dividend + " / " + divisor + " " + roundingMode);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Деление без округления.")
+    @Description("Данный тест проверяет, что режим UNNECESSARY выбрасывает ошибку, если деление неточное.")
+    @Tag("minorUnits")
+    public void test_divide_Unnecessary_ShouldThrow_ArithmeticException() {
+        assertEquals(3, MinorUnits.divide(9, 3, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.divide(10, 3, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Перевод рублей и коэффициентов в целые числа.")
+    @Description("Данный тест проверяет перевод рублей в копейки и коэффициентов в фиксированный масштаб.")
+    @Tag("minorUnits")
+    public void test_fromMajor_And_coefficient() {
+        assertEquals(40_000, MinorUnits.fromMajor(400.00));
+        assertEquals(1, MinorUnits.fromMajor(0.01));
+        assertEquals(16_000, MinorUnits.coefficient(1.6));
+        assertEquals(63_000, MinorUnits.applyCoefficient(45_000, MinorUnits.coefficient(1.4), RoundingMode.HALF_UP));
+
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.fromMajor(0.001));
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.coefficient(1.00001));
+    }
+}
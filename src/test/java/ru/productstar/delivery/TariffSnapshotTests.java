@@ -0,0 +1,124 @@
+package ru.productstar.delivery;
+
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.delivery.dicts.CargoFragility.NOT_FRAGILE;
+import static ru.productstar.delivery.dicts.CargoSize.LARGE_CARGO;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.VERY_HIGH_WORKLOAD;
+import static ru.productstar.delivery.dicts.Distance.LESS_30_KM;
+import static ru.productstar.delivery.dicts.Distance.OVER_30_KM;
+import static ru.productstar.delivery.dicts.DeliveryPrices.*;
+
+public class TariffSnapshotTests {
+    private final TariffTable initialTariffs = DeliveryCost.getTariffTable();
+
+    @AfterEach
+    public void restoreTariffs() {
+        DeliveryCost.restoreTariffs(initialTariffs);
+    }
+
+    @Test
+    @DisplayName("Загрузка тарифов из properties.")
+    @Description("Данный тест проверяет, что заданные в properties цены и версия попадают в снимок, а остальные берутся по умолчанию.")
+    @Tag("tariffSnapshot")
+    public void test_fromProperties_ShouldOverrideOnlyGivenPrices() {
+        Properties properties = new Properties();
+        properties.setProperty(TariffSnapshot.VERSION_KEY, "7");
+        properties.setProperty("OVER_30_KM_PRICE", "350.5");
+        properties.setProperty("VERY_HIGH_WORKLOAD_COEFFICIENT", "2");
+
+        TariffSnapshot snapshot = TariffSnapshot.fromProperties(properties, 1);
+
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(350.5, snapshot.getPrice(OVER_30_KM));
+        assertEquals(LESS_30_KM_PRICE, snapshot.getPrice(LESS_30_KM));
+        assertEquals(2.0, snapshot.getCoefficient(VERY_HIGH_WORKLOAD));
+
+        DeliveryQuote quote = TariffTable.compile(snapshot).quote(LESS_30_KM, LARGE_CARGO, NOT_FRAGILE, VERY_HIGH_WORKLOAD);
+        assertEquals((LESS_30_KM_PRICE + LARGE_CARGO_PRICE + NOT_FRAGILE_PRICE) * 2, quote.getCost());
+        assertEquals(7, quote.getTariffVersion());
+    }
+
+    @Test
+    @DisplayName("Некорректные тарифы в properties.")
+    @Description("Данный тест проверяет, что отрицательные цены и неположительные коэффициенты не принимаются.")
+    @Tag("tariffSnapshot")
+    public void test_fromProperties_InvalidValues_ShouldThrow_IllegalArgumentException() {
+        Properties negativePrice = new Properties();
+        negativePrice.setProperty("LESS_2_KM_PRICE", "-1");
+        assertThrows(IllegalArgumentException.class, () -> TariffSnapshot.fromProperties(negativePrice, 1));
+
+        Properties zeroCoefficient = new Properties();
+        zeroCoefficient.setProperty("HIGH_WORKLOAD_COEFFICIENT", "0");
+        assertThrows(IllegalArgumentException.class, () -> TariffSnapshot.fromProperties(zeroCoefficient, 1));
+    }
+
+    @Test
+    @DisplayName("Публикация новой версии тарифов.")
+    @Description("Данный тест проверяет, что тарифы перечитываются из файла с новой версией, а старые версии не публикуются.")
+    @Tag("tariffSnapshot")
+    public void test_reloadTariffs_ShouldPublishNewerVersionOnly() throws IOException {
+        long currentVersion = DeliveryCost.getTariffSnapshot().getVersion();
+        Path file = Files.createTempFile("tariffs", ".properties");
+        try {
+            Files.writeString(file, "# тарифы по умолчанию\n", StandardCharsets.UTF_8);
+
+            TariffSnapshot reloaded = DeliveryCost.reloadTariffs(file);
+
+            assertEquals(currentVersion + 1, reloaded.getVersion());
+            assertSame(reloaded, DeliveryCost.getTariffSnapshot());
+            assertEquals(currentVersion + 1,
+                    DeliveryCost.quote(LESS_30_KM, LARGE_CARGO, NOT_FRAGILE, VERY_HIGH_WORKLOAD).getTariffVersion());
+
+            assertFalse(DeliveryCost.publishTariffs(TariffSnapshot.defaults()));
+            assertSame(reloaded, DeliveryCost.getTariffSnapshot());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Одновременная перезагрузка тарифов.")
+    @Description("Данный тест проверяет, что одновременные перезагрузки без версии в файле публикуют разные версии без ошибок.")
+    @Tag("tariffSnapshot")
+    public void test_reloadTariffs_Concurrent_ShouldPublishEachReload() throws Exception {
+        long currentVersion = DeliveryCost.getTariffSnapshot().getVersion();
+        int reloads = 8;
+        Path file = Files.createTempFile("tariffs", ".properties");
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(reloads)) {
+            Files.writeString(file, "# тарифы по умолчанию\n", StandardCharsets.UTF_8);
+
+            Future<?>[] results = new Future<?>[reloads];
+            for (int i = 0; i < reloads; i++) {
+                results[i] = executor.submit(() -> {
+                    start.await();
+                    return DeliveryCost.reloadTariffs(file);
+                });
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            assertEquals(currentVersion + reloads, DeliveryCost.getTariffSnapshot().getVersion());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
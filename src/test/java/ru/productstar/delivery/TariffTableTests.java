@@ -0,0 +1,61 @@
+package ru.productstar.delivery;
+
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.productstar.delivery.dicts.CargoFragility;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.DeliveryServiceWorkload;
+import ru.productstar.delivery.dicts.Distance;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.delivery.dicts.CargoFragility.FRAGILE;
+import static ru.productstar.delivery.dicts.CargoSize.SMALL_CARGO;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.LOW_WORKLOAD;
+import static ru.productstar.delivery.dicts.Distance.OVER_30_KM;
+
+public class TariffTableTests {
+    @Test
+    @DisplayName("Таблица тарифов совпадает с формулой расчета.")
+    @Description("Данный тест проверяет, что стоимость из таблицы тарифов побитово совпадает с расчетом по формуле для всех комбинаций параметров.")
+    @Tag("tariffTable")
+    public void test_compile_ShouldMatchFormulaBitForBit() {
+        TariffTable table = TariffTable.compile(TariffSnapshot.defaults());
+        int cells = 0;
+
+        for (Distance distance : Distance.values()) {
+            for (CargoSize cargoSize : CargoSize.values()) {
+                for (CargoFragility cargoFragility : CargoFragility.values()) {
+                    for (DeliveryServiceWorkload workload : DeliveryServiceWorkload.values()) {
+                        int index = TariffTable.index(distance, cargoSize, cargoFragility, workload);
+                        if (DeliveryCost.checkDelivery(distance, cargoFragility) != DeliveryQuote.Reason.ACCEPTED) {
+                            assertTrue(table.isForbidden(index));
+                            assertEquals(TariffTable.FORBIDDEN_KOPECKS, table.costKopecks(index));
+                        } else {
+                            double expected = DeliveryCost.computeDeliveryCost(table.getSnapshot(), distance, cargoSize, cargoFragility, workload);
+                            assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(table.cost(index)));
+                            assertEquals(expected, DeliveryCost.calculateDeliveryCost(distance, cargoSize, cargoFragility, workload));
+                            assertEquals(Math.round(expected * 100), table.costKopecks(index));
+                        }
+                        cells++;
+                    }
+                }
+            }
+        }
+
+        assertEquals(TariffTable.SIZE, cells);
+    }
+
+    @Test
+    @DisplayName("Запрещенные комбинации в таблице тарифов.")
+    @Description("Данный тест проверяет, что таблица тарифов выбрасывает ошибку для хрупкого груза на расстояние более 30 км.")
+    @Tag("tariffTable")
+    public void test_calculateDeliveryCost_FragileCargo_over30Km_ShouldThrow_DeliveryIsForbiddenException() {
+        TariffTable table = TariffTable.compile(TariffSnapshot.defaults());
+
+        assertTrue(table.isForbidden(TariffTable.index(OVER_30_KM, SMALL_CARGO, FRAGILE, LOW_WORKLOAD)));
+        assertThrows(DeliveryIsForbiddenException.class,
+                () -> table.calculateDeliveryCost(OVER_30_KM, SMALL_CARGO, FRAGILE, LOW_WORKLOAD));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.productstar.delivery;
+
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.*;
+
+public class WorkloadMeterTests {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    private static final double[] THRESHOLDS = {10, 20, 40, 80};
+
+    private final AtomicLong clock = new AtomicLong(SECOND * 1000);
+    private final WorkloadMeter meter = new WorkloadMeter(Duration.ofSeconds(10), 10, THRESHOLDS, 0.25, clock::get);
+
+    @Test
+    @DisplayName("Загруженность по потоку заказов.")
+    @Description("Данный тест проверяет, что поток событий в секунду переводится в уровень загруженности по порогам.")
+    @Tag("workloadMeter")
+    public void test_currentWorkload_ShouldFollowRate() {
+        assertEquals(LOW_WORKLOAD, meter.currentWorkload());
+
+        runSeconds(10, 25);
+        assertEquals(25.0, meter.ratePerSecond());
+        assertEquals(INCREASED_WORKLOAD, meter.currentWorkload());
+
+        runSeconds(10, 100);
+        assertEquals(VERY_HIGH_WORKLOAD, meter.currentWorkload());
+
+        runSeconds(10, 0);
+        assertEquals(LOW_WORKLOAD, meter.currentWorkload());
+    }
+
+    @Test
+    @DisplayName("Гистерезис при понижении загруженности.")
+    @Description("Данный тест проверяет, что уровень загруженности не понижается, пока поток не опустится ниже порога с учетом гистерезиса.")
+    @Tag("workloadMeter")
+    public void test_currentWorkload_ShouldApplyHysteresis() {
+        runSeconds(10, 45);
+        assertEquals(HIGH_WORKLOAD, meter.currentWorkload());
+
+        runSeconds(10, 35);
+        assertEquals(HIGH_WORKLOAD, meter.currentWorkload());
+
+        runSeconds(10, 29);
+        assertEquals(INCREASED_WORKLOAD, meter.currentWorkload());
+    }
+
+    @Test
+    @DisplayName("Поток заказов сразу после начала новой корзины.")
+    @Description("Данный тест проверяет, что запись в новую текущую корзину не вытесняет из окна самую старую завершенную корзину.")
+    @Tag("workloadMeter")
+    public void test_ratePerSecond_AfterRotation_ShouldCountWholeWindow() {
+        runSeconds(10, 25);
+        meter.record(1_000);
+
+        assertEquals(25.0, meter.ratePerSecond());
+
+        clock.addAndGet(SECOND);
+        assertEquals(25.0 + (1_000 - 25) / 10.0, meter.ratePerSecond());
+    }
+
+    @Test
+    @DisplayName("Некорректные пороги загруженности.")
+    @Description("Данный тест проверяет, что пороги должны идти по возрастанию и их должно быть четыре.")
+    @Tag("workloadMeter")
+    public void test_constructor_InvalidThresholds_ShouldThrow_IllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorkloadMeter(Duration.ofSeconds(10), 10, new double[]{10, 5, 20, 30}, 0.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorkloadMeter(Duration.ofSeconds(10), 10, new double[]{10, 20}, 0.1));
+    }
+
+    private void runSeconds(int seconds, int eventsPerSecond) {
+        for (int s = 0; s < seconds; s++) {
+            meter.record(eventsPerSecond);
+            clock.addAndGet(SECOND);
+            meter.currentWorkload();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.productstar.mockito.model;
+
+import org.junit.jupiter.api.Test;
+import ru.productstar.delivery.DeliveryCost;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.delivery.dicts.CargoFragility.NOT_FRAGILE;
+import static ru.productstar.delivery.dicts.CargoSize.LARGE_CARGO;
+import static ru.productstar.delivery.dicts.CargoSize.SMALL_CARGO;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.REGULAR_WORKLOAD;
+import static ru.productstar.delivery.dicts.Distance.LESS_10_KM;
+import static ru.productstar.delivery.dicts.Distance.OVER_30_KM;
+
+public class OrderTest {
+
+    private final Product phone = new Product("phone");
+    private final Product laptop = new Product("laptop");
+    private final Warehouse near = new Warehouse("Near", 5);
+    private final Warehouse far = new Warehouse("Far", 30);
+
+    @Test
+    public void test_AddDelivery_GroupsLinesByWarehouse() {
+        Order order = new Order(new Customer("Ivan"));
+
+        order.addDelivery(new Delivery(phone, near, 400, 2));
+        order.addDelivery(new Delivery(laptop, far, 900, 1));
+        order.addDelivery(new Delivery(laptop, near, 850, 3));
+
+        assertEquals(2 * 400 + 900 + 3 * 850, order.getTotal());
+        assertEquals((2 * 400 + 900 + 3 * 850) * 100L, order.getTotalKopecks());
+        assertEquals(2, order.getShipments().size());
+
+        Shipment nearShipment = shipmentFrom(order, near);
+        assertEquals(5, nearShipment.getUnits());
+        assertEquals(2 * 400 + 3 * 850, nearShipment.getTotal());
+        assertEquals(LESS_10_KM, nearShipment.getDistance());
+
+        long nearFee = DeliveryCost.calculateDeliveryCostKopecks(LESS_10_KM, SMALL_CARGO, NOT_FRAGILE, REGULAR_WORKLOAD);
+        long farFee = DeliveryCost.calculateDeliveryCostKopecks(OVER_30_KM, SMALL_CARGO, NOT_FRAGILE, REGULAR_WORKLOAD);
+        assertEquals(nearFee + farFee, order.getDeliveryFeeKopecks());
+    }
+
+    @Test
+    public void test_AddDelivery_RepricesOnlyAffectedShipment() {
+        Order order = new Order(new Customer("Ivan"));
+
+        order.addDelivery(new Delivery(phone, near, 400, Shipment.LARGE_CARGO_UNITS));
+        order.addDelivery(new Delivery(laptop, far, 900, 1));
+        long farFee = shipmentFrom(order, far).getDeliveryFeeKopecks();
+
+        order.addDelivery(new Delivery(phone, near, 400, 1));
+
+        assertEquals(LARGE_CARGO, shipmentFrom(order, near).getCargoSize());
+        assertEquals(farFee, shipmentFrom(order, far).getDeliveryFeeKopecks());
+        assertEquals(DeliveryCost.calculateDeliveryCostKopecks(LESS_10_KM, LARGE_CARGO, NOT_FRAGILE, REGULAR_WORKLOAD) + farFee,
+                order.getDeliveryFeeKopecks());
+    }
+
+    @Test
+    public void test_AddDelivery_ConcurrentLines() throws InterruptedException {
+        Order order = new Order(new Customer("Ivan"));
+        int threads = 8;
+        int linesPerThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Warehouse warehouse = t % 2 == 0 ? near : far;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < linesPerThread; i++) {
+                    order.addDelivery(new Delivery(phone, warehouse, 400, 1));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Delivery> deliveries = order.getDeliveries();
+        assertEquals(threads * linesPerThread, deliveries.size());
+        assertThrows(UnsupportedOperationException.class, () -> deliveries.add(deliveries.get(0)));
+        assertEquals(400L * threads * linesPerThread, order.getTotal());
+        assertEquals(threads / 2 * linesPerThread, shipmentFrom(order, near).getUnits());
+        assertEquals(threads / 2 * linesPerThread, shipmentFrom(order, far).getUnits());
+        assertEquals(DeliveryCost.calculateDeliveryCostKopecks(LESS_10_KM, LARGE_CARGO, NOT_FRAGILE, REGULAR_WORKLOAD)
+                        + DeliveryCost.calculateDeliveryCostKopecks(OVER_30_KM, LARGE_CARGO, NOT_FRAGILE, REGULAR_WORKLOAD),
+                order.getDeliveryFeeKopecks());
+    }
+
+    @Test
+    public void test_GetDeliveries_SnapshotInAppendOrder() {
+        Order order = new Order(new Customer("Ivan"));
+        Delivery first = new Delivery(phone, near, 400, 2);
+        Delivery second = new Delivery(laptop, far, 900, 1);
+
+        order.addDelivery(first);
+        List<Delivery> snapshot = order.getDeliveries();
+        order.addDelivery(second);
+
+        assertEquals(List.of(first), snapshot);
+        assertEquals(List.of(first, second), order.getDeliveries());
+    }
+
+    private static Shipment shipmentFrom(Order order, Warehouse warehouse) {
+        return order.getShipments().stream()
+                .filter(shipment -> shipment.getWarehouse() == warehouse)
+                .findFirst()
+                .orElseThrow();
+    }
+}
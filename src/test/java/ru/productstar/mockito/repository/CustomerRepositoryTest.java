@@ -22,6 +22,35 @@ public class CustomerRepositoryTest{
         assertNull(cr.getByName("Max"));
     }
 
+    @Test
+    public void addDuplicateNameTest() {
+        CustomerRepository cr = new CustomerRepository();
+        Customer ivan = cr.getByName("Ivan");
+
+        Customer duplicate = cr.add(new Customer("Ivan"));
+
+        assertEquals(3, duplicate.getId());
+        assertEquals(4, cr.size());
+        assertSame(ivan, cr.getByName("Ivan"));
+        assertSame(duplicate, cr.all().get(3));
+    }
+
+    @Test
+    public void getOrAddDuplicateNameTest() {
+        CustomerRepository cr = new CustomerRepository();
+        Customer ivan = cr.getByName("Ivan");
+        Customer duplicate = new Customer("Ivan");
+
+        assertSame(ivan, cr.getOrAdd(duplicate));
+        assertEquals(0, duplicate.getId());
+        assertEquals(3, cr.size());
+
+        Customer max = new Customer("Max");
+        assertSame(max, cr.getOrAdd(max));
+        assertEquals(3, max.getId());
+        assertSame(max, cr.getByName("Max"));
+    }
+
     @Test
     public void mockGetByNameTest() {
         CustomerRepository cr = mock(CustomerRepository.class);
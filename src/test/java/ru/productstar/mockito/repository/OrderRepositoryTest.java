@@ -0,0 +1,76 @@
+package ru.productstar.mockito.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.productstar.mockito.model.Customer;
+import ru.productstar.mockito.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderRepositoryTest {
+
+    @Test
+    public void createAndGetByIdTest() {
+        OrderRepository orderRepository = new OrderRepository();
+        Customer customer = new Customer("Ivan");
+
+        List<Order> created = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            created.add(orderRepository.create(customer));
+        }
+
+        assertEquals(1_000, orderRepository.size());
+        for (int i = 0; i < created.size(); i++) {
+            assertEquals(i, created.get(i).getId());
+            assertSame(created.get(i), orderRepository.getById(i));
+        }
+        assertEquals(created, orderRepository.all());
+        assertThrows(IndexOutOfBoundsException.class, () -> orderRepository.getById(1_000));
+        assertThrows(IndexOutOfBoundsException.class, () -> orderRepository.getById(-1));
+    }
+
+    @Test
+    public void concurrentCreateTest() throws InterruptedException {
+        OrderRepository orderRepository = new OrderRepository();
+        Customer customer = new Customer("Ivan");
+        int threads = 8;
+        int ordersPerThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger mismatches = new AtomicInteger();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < ordersPerThread; i++) {
+                    Order order = orderRepository.create(customer);
+                    if (orderRepository.getById(order.getId()) != order) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(0, mismatches.get());
+        assertEquals(threads * ordersPerThread, orderRepository.size());
+        List<Order> all = orderRepository.all();
+        assertEquals(threads * ordersPerThread, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i, all.get(i).getId());
+        }
+    }
+}
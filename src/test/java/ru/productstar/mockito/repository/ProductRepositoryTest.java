@@ -6,6 +6,8 @@ import org.mockito.MockedConstruction;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.productstar.mockito.model.Product;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.when;
@@ -24,4 +26,45 @@ public class ProductRepositoryTest {
             assertNull(productRepository.getByName("laptop"));
         }
     }
+
+    @Test
+    public void getByNameDuplicateNameReturnsFirstTest() {
+        ProductRepository productRepository = new ProductRepository();
+        Product second = productRepository.add(new Product("phone"));
+
+        assertEquals(0, productRepository.getByName("phone").getId());
+        assertNotEquals(second, productRepository.getByName("phone"));
+        assertNull(productRepository.getByName("tv"));
+    }
+
+    @Test
+    public void secondaryIndexStaysConsistentOnAddTest() {
+        ProductRepository productRepository = new ProductRepository();
+        ProductIndex<Integer> byNameLength = productRepository.addIndex(product -> product.getName().length());
+        ProductIndex<Character> byFirstLetter = productRepository.addIndex(
+                product -> product.getName().startsWith("x") ? null : product.getName().charAt(0));
+
+        Product tablet = productRepository.add(new Product("tablet"));
+        productRepository.add(new Product("xbox"));
+
+        assertEquals(List.of(productRepository.getByName("laptop"), tablet), byNameLength.get(6));
+        assertEquals(List.of(productRepository.getByName("phone"), productRepository.getByName("printer")),
+                byFirstLetter.get('p'));
+        assertTrue(byFirstLetter.get('x').isEmpty());
+        assertEquals(List.of(), byNameLength.get(100));
+    }
+
+    @Test
+    public void estimateIndexBytesPerProductTest() {
+        ProductRepository productRepository = new ProductRepository();
+        for (int i = 0; i < 10_000; i++) {
+            productRepository.add(new Product("product-" + i));
+        }
+        double nameIndexOnly = productRepository.estimateIndexBytesPerProduct();
+
+        productRepository.addIndex(product -> product.getId() % 100);
+
+        assertTrue(nameIndexOnly > ProductIndex.HASH_MAP_NODE_BYTES && nameIndexOnly < 64, "bytes: " + nameIndexOnly);
+        assertTrue(productRepository.estimateIndexBytesPerProduct() > nameIndexOnly);
+    }
 }
@@ -0,0 +1,65 @@
+package ru.productstar.mockito.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.productstar.mockito.model.Product;
+import ru.productstar.mockito.model.Stock;
+import ru.productstar.mockito.model.Warehouse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.VERY_HIGH_WORKLOAD;
+
+public class StockRankingTest {
+
+    private final Product phone = new Product("phone");
+
+    @Test
+    public void findCheapestTest() {
+        // доставка небольшого груза в любую зону стоит 400 (минимальная цена), выигрывает цена товара
+        Warehouse far = new Warehouse("Far", 40);
+        Warehouse middle = new Warehouse("Middle", 20);
+        Warehouse near = new Warehouse("Near", 1);
+
+        StockRanking ranking = new StockRanking()
+                .with(far, new Stock(phone, 300, 10))
+                .with(middle, new Stock(phone, 380, 2))
+                .with(near, new Stock(phone, 450, 3));
+
+        assertSame(far, ranking.findCheapest("phone", 1));
+        assertSame(far, ranking.findCheapest("phone", 5));
+        assertNull(ranking.findCheapest("phone", 11));
+        assertNull(ranking.findCheapest("laptop", 1));
+    }
+
+    @Test
+    public void findCheapestIncludesDeliveryCostTest() {
+        // 12 единиц - крупногабаритный груз: до 2 км - 400, более 30 км - (300 + 200) = 500
+        Warehouse far = new Warehouse("Far", 40);
+        Warehouse near = new Warehouse("Near", 1);
+
+        StockRanking ranking = new StockRanking()
+                .with(far, new Stock(phone, 100, 20))
+                .with(near, new Stock(phone, 105, 20));
+        assertSame(near, ranking.findCheapest("phone", 12));
+        assertSame(far, ranking.findCheapest("phone", 1));
+
+        Warehouse cheaperFar = new Warehouse("CheaperFar", 35);
+        StockRanking updated = ranking.with(cheaperFar, new Stock(phone, 90, 20));
+        assertSame(cheaperFar, updated.findCheapest("phone", 12));
+        assertSame(near, ranking.findCheapest("phone", 12));
+    }
+
+    @Test
+    public void findCheapestUsesWorkloadTest() {
+        // 12 единиц: обычная загрузка - далекий 1200 + 500 против близкого 1320 + 400,
+        // очень высокая - далекий 1200 + 800 против близкого 1320 + 400
+        Warehouse far = new Warehouse("Far", 40);
+        Warehouse near = new Warehouse("Near", 1);
+
+        StockRanking ranking = new StockRanking()
+                .with(far, new Stock(phone, 100, 20))
+                .with(near, new Stock(phone, 110, 20));
+
+        assertSame(far, ranking.findCheapest("phone", 12));
+        assertSame(near, ranking.findCheapest("phone", 12, VERY_HIGH_WORKLOAD));
+    }
+}
@@ -4,9 +4,20 @@ import com.sun.source.tree.WhileLoopTree;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.productstar.mockito.model.Product;
+import ru.productstar.mockito.model.Stock;
 import ru.productstar.mockito.model.Warehouse;
+import ru.productstar.mockito.service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalMatchers.geq;
 import static org.mockito.Mockito.spy;
@@ -26,6 +37,76 @@ public class WarehouseRepositoryTest {
         assertEquals(40, wh0.getStocks().get(2).getPrice());
     }
 
+    @Test
+    public void allSnapshotTest() {
+        WarehouseRepository whr = new WarehouseRepository(new ProductRepository());
+
+        List<Warehouse> before = whr.all();
+        assertSame(before, whr.all());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(new Warehouse("Warehouse3", 10)));
+
+        Warehouse wh3 = new Warehouse("Warehouse3", 10);
+        whr.add(wh3);
+        List<Warehouse> after = whr.all();
+        assertEquals(3, before.size());
+        assertEquals(4, after.size());
+        assertSame(wh3, after.get(3));
+        assertSame(after, whr.all());
+        assertSame(wh3, whr.getById(3));
+        assertNull(whr.getById(4));
+        assertNull(whr.getById(-1));
+    }
+
+    @Test
+    public void concurrentReadersAndWriterTest() throws InterruptedException {
+        ProductRepository productRepository = new ProductRepository();
+        Product phone = productRepository.getByName("phone");
+        WarehouseRepository whr = new WarehouseRepository(productRepository);
+        WarehouseService warehouseService = new WarehouseService(whr);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (!done.get()) {
+                        assertNotNull(warehouseService.findCheapestWarehouse("phone", 1));
+                        for (Warehouse warehouse : whr.all()) {
+                            for (Stock stock : warehouse.getStocks()) {
+                                assertNotNull(stock.getProduct());
+                            }
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 2 == 0) {
+                Warehouse warehouse = new Warehouse("Warehouse" + (3 + i / 2), i % 50);
+                warehouse.addStock(new Stock(phone, 500 + i, 1));
+                whr.add(warehouse);
+            } else {
+                whr.addStock(whr.getById(0), new Stock(phone, 500 + i, 1));
+            }
+        }
+        Warehouse cheapest = new Warehouse("Cheapest", 1);
+        cheapest.addStock(new Stock(phone, 1, 1));
+        whr.add(cheapest);
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(3 + 500 + 1, whr.size());
+        assertEquals(3 + 500, whr.getById(0).getStocks().size());
+        assertSame(cheapest, warehouseService.findCheapestWarehouse("phone", 1));
+    }
+
     @Test
     public void mockGetByIdTest() {
         WarehouseRepository whr = spy(InitRepository.getInstance().getWarehouseRepository());
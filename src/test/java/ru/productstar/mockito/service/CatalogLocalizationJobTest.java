@@ -0,0 +1,77 @@
+package ru.productstar.mockito.service;
+
+import org.junit.jupiter.api.Test;
+import ru.productstar.mockito.model.Product;
+import ru.productstar.mockito.repository.LocalizedNameIndex;
+import ru.productstar.mockito.repository.ProductRepository;
+import ru.productstar.translate.FakeTranslate;
+import ru.productstar.translate.MyTranslationService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogLocalizationJobTest {
+
+    @Test
+    public void test_Run_LocalizesEveryProductOncePerName() {
+        ProductRepository productRepository = new ProductRepository();
+        for (int i = 0; i < 100; i++) {
+            productRepository.add(new Product("product " + (i % 20)));
+        }
+        FakeTranslate fake = FakeTranslate.builder().translation("phone", "телефон").build();
+        LocalizedNameIndex localizedNames = new LocalizedNameIndex();
+
+        CatalogLocalizationJob.Report report = new CatalogLocalizationJob(productRepository,
+                new MyTranslationService(fake), localizedNames, 8, 4).run();
+
+        assertEquals(productRepository.size(), report.getLocalizedCount());
+        assertEquals(productRepository.size(), localizedNames.size());
+        assertEquals("телефон", localizedNames.get(0));
+        assertEquals("[ru] product 3", localizedNames.get(productRepository.getByName("product 3").getId()));
+        assertEquals(25, fake.getTranslatedCount());
+        assertEquals(report.getBatchCount(), fake.getBatchCallCount());
+    }
+
+    @Test
+    public void test_Run_RememberedNamesBounded_RepeatedNamesTranslatedAgain() {
+        ProductRepository productRepository = new ProductRepository();
+        for (int i = 0; i < 100; i++) {
+            productRepository.add(new Product("product " + (i % 20)));
+        }
+        FakeTranslate fake = FakeTranslate.builder().build();
+        LocalizedNameIndex localizedNames = new LocalizedNameIndex();
+
+        CatalogLocalizationJob.Report report = new CatalogLocalizationJob(productRepository,
+                new MyTranslationService(fake), localizedNames, 8, 1, 1).run();
+
+        assertEquals(productRepository.size(), report.getLocalizedCount());
+        assertEquals(productRepository.size(), localizedNames.size());
+        assertEquals("[ru] product 3", localizedNames.get(productRepository.getByName("product 3").getId()));
+        assertTrue(fake.getTranslatedCount() > 25);
+    }
+
+    @Test
+    public void test_Run_AfterPartialFailure_Resumes() {
+        ProductRepository productRepository = new ProductRepository();
+        for (int i = 0; i < 50; i++) {
+            productRepository.add(new Product("product " + i));
+        }
+        LocalizedNameIndex localizedNames = new LocalizedNameIndex();
+        FakeTranslate failing = FakeTranslate.builder().errorRate(0.5).seed(1).build();
+
+        CatalogLocalizationJob.Report first = new CatalogLocalizationJob(productRepository,
+                new MyTranslationService(failing), localizedNames, 5, 1).run();
+
+        assertTrue(first.getFailedBatchCount() > 0);
+        assertTrue(first.getLocalizedCount() > 0);
+        assertEquals(productRepository.size(), first.getLocalizedCount() + first.getFailedCount());
+
+        FakeTranslate healthy = FakeTranslate.builder().build();
+        CatalogLocalizationJob.Report second = new CatalogLocalizationJob(productRepository,
+                new MyTranslationService(healthy), localizedNames, 5, 1).run();
+
+        assertEquals(first.getLocalizedCount(), second.getSkippedCount());
+        assertEquals(first.getFailedCount(), second.getLocalizedCount());
+        assertEquals(first.getFailedCount(), healthy.getTranslatedCount());
+        assertEquals(productRepository.size(), localizedNames.size());
+    }
+}
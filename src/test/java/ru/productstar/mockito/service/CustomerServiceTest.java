@@ -9,7 +9,15 @@ import ru.productstar.mockito.model.Customer;
 import ru.productstar.mockito.repository.CustomerRepository;
 import ru.productstar.mockito.repository.InitRepository;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +58,45 @@ public class CustomerServiceTest {
 
         InOrder inOrder = inOrder(customerRepo);
         inOrder.verify(customerRepo, times(1)).getByName("Oleg");
-        inOrder.verify(customerRepo, times(1)).add(isA(Customer.class));
+        inOrder.verify(customerRepo, times(1)).getOrAdd(isA(Customer.class));
         inOrder.verifyNoMoreInteractions();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void concurrentSignupsTest() throws InterruptedException {
+        CustomerRepository customerRepository = new CustomerRepository();
+        CustomerService customerService = new CustomerService(customerRepository);
+        ConcurrentLinkedQueue<Customer> created = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    created.add(customerService.getOrCreate("customer-" + i));
+                }
+            });
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_003, customerRepository.size());
+        for (Customer customer : created) {
+            assertSame(customerRepository.getByName(customer.getName()), customer);
+        }
+        List<Customer> all = customerRepository.all();
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i, all.get(i).getId());
+            ids.add(all.get(i).getId());
+        }
+        assertEquals(1_003, ids.size());
+    }
+}
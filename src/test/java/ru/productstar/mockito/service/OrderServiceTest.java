@@ -5,6 +5,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InOrder;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.productstar.delivery.DeliveryCost;
+import ru.productstar.delivery.WorkloadMeter;
+import ru.productstar.delivery.dicts.CargoSize;
+import ru.productstar.delivery.dicts.Distance;
 import ru.productstar.mockito.ProductNotFoundException;
 import ru.productstar.mockito.model.Customer;
 import ru.productstar.mockito.model.Delivery;
@@ -16,6 +20,8 @@ import ru.productstar.mockito.repository.ProductRepository;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static ru.productstar.delivery.dicts.CargoFragility.NOT_FRAGILE;
+import static ru.productstar.delivery.dicts.DeliveryServiceWorkload.VERY_HIGH_WORKLOAD;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceTest {
@@ -124,6 +130,50 @@ public class OrderServiceTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void test_AddProduct_WithExistingProduct_CheapestWarehouse() throws ProductNotFoundException {
+        OrderService orderService = new OrderService(customerService, warehouseService, orderRepository, productRepository);
+
+        Order order = orderService.create(EXISTING_CUSTOMER_NAME);
+        assertNotNull(order);
+
+        orderService.addProduct(order, EXISTING_PRODUCT, 1, WarehouseSelection.CHEAPEST);
+
+        InOrder inOrder = inOrder(customerService, warehouseService, orderRepository, productRepository);
+        inOrder.verify(customerService).getOrCreate(EXISTING_CUSTOMER_NAME);
+        inOrder.verify(orderRepository).create(isA(Customer.class));
+        inOrder.verify(warehouseService).findCheapestWarehouse(EXISTING_PRODUCT, 1);
+        inOrder.verify(productRepository).getByName(EXISTING_PRODUCT);
+        inOrder.verify(warehouseService).getStock(isA(Warehouse.class), eq(EXISTING_PRODUCT));
+        inOrder.verify(orderRepository).addDelivery(eq(order.getId()), isA(Delivery.class));
+        inOrder.verifyNoMoreInteractions();
+
+        // Warehouse1: 380 + доставка 400 дешевле, чем Warehouse0: 400 + 400 и Warehouse2: 450 + 400
+        assertEquals("Warehouse1", order.getDeliveries().get(0).getWarehouse().getName());
+    }
+
+    @Test
+    public void test_AddProduct_WithWorkloadMeter_RecordsOrderLine() throws ProductNotFoundException {
+        WorkloadMeter workloadMeter = mock(WorkloadMeter.class);
+        when(workloadMeter.currentWorkload()).thenReturn(VERY_HIGH_WORKLOAD);
+        OrderService orderService = new OrderService(customerService, warehouseService, orderRepository, productRepository, workloadMeter);
+
+        Order order = orderService.create(EXISTING_CUSTOMER_NAME);
+        orderService.addProduct(order, EXISTING_PRODUCT, 1, false);
+        assertThrows(ProductNotFoundException.class,
+                () -> orderService.addProduct(order, NOT_EXISTING_PRODUCT, 1, false));
+
+        verify(workloadMeter, times(2)).currentWorkload();
+        verify(workloadMeter, times(1)).record();
+        verifyNoMoreInteractions(workloadMeter);
+        verify(orderRepository).addDelivery(eq(order.getId()), isA(Delivery.class), eq(VERY_HIGH_WORKLOAD));
+
+        Warehouse warehouse = order.getDeliveries().get(0).getWarehouse();
+        assertEquals(DeliveryCost.calculateDeliveryCostKopecks(Distance.ofKilometers(warehouse.getDistance()),
+                        CargoSize.SMALL_CARGO, NOT_FRAGILE, VERY_HIGH_WORKLOAD),
+                order.getDeliveryFeeKopecks());
+    }
+
     @Test
     public void test_AddProduct_WithExistingProduct_NotEnoughCount_ThrowsProductNotFoundException() {
         OrderService orderService = new OrderService(customerService, warehouseService, orderRepository, productRepository);
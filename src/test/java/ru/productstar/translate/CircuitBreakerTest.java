@@ -0,0 +1,70 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void call_failuresBelowThreshold_staysClosed() {
+        fail(2);
+        assertEquals("Привет", circuitBreaker.call(this::success));
+        fail(2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void call_afterThresholdFailures_failsFastWithoutCalling() {
+        fail(3);
+        int callsBefore = calls.get();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(MyTranslationServiceException.class, () -> circuitBreaker.call(this::success));
+        assertEquals(callsBefore, calls.get());
+    }
+
+    @Test
+    void call_afterOpenDuration_trialSuccessCloses() {
+        fail(3);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals("Привет", circuitBreaker.call(this::success));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void call_afterOpenDuration_trialFailureOpensAgain() {
+        fail(3);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(MyTranslationServiceException.class, () -> circuitBreaker.call(this::success));
+    }
+
+    private String success() {
+        calls.incrementAndGet();
+        return "Привет";
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(MyTranslationServiceException.class, () -> circuitBreaker.call(() -> {
+                calls.incrementAndGet();
+                throw new MyTranslationServiceException("Exception while calling Google Translate API", null);
+            }));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.Translation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentTranslatorTest {
+
+    @Mock
+    private Translate googleTranslate;
+
+    private MyTranslationService service;
+
+    private static final String VALID_TARGET_LANGUAGE = "ru";
+
+    @BeforeEach
+    public void setup() {
+        service = new MyTranslationService(googleTranslate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.close();
+    }
+
+    private Translate.TranslateOption getTranslateOptionForValidLanguage() {
+        return Translate.TranslateOption.targetLanguage(VALID_TARGET_LANGUAGE);
+    }
+
+    /**
+     * Stub upstream wraps every chunk into brackets after a random delay, so chunks complete out of order.
+     */
+    private void stubBracketTranslation(AtomicInteger maxChunkLength) {
+        when(googleTranslate.translate(anyString(), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            String chunk = invocation.getArgument(0);
+            maxChunkLength.accumulateAndGet(chunk.length(), Math::max);
+            Thread.sleep((chunk.hashCode() & 0xF) + 1);
+            Translation translation = mock(Translation.class);
+            when(translation.getTranslatedText()).thenReturn("[" + chunk + "]");
+            return translation;
+        });
+    }
+
+    @Test
+    void translate_largeDocument_chunksTranslatedInOriginalOrder() throws IOException {
+        AtomicInteger maxChunkLength = new AtomicInteger();
+        stubBracketTranslation(maxChunkLength);
+        StringBuilder document = new StringBuilder();
+        for (int paragraph = 0; paragraph < 50; paragraph++) {
+            for (int sentence = 0; sentence < 5; sentence++) {
+                document.append("Paragraph ").append(paragraph).append(", sentence ").append(sentence).append(". ");
+            }
+            document.append("\n\n");
+        }
+
+        StringWriter out = new StringWriter();
+        new DocumentTranslator(service, 80, 4).translate(new StringReader(document.toString()), out, VALID_TARGET_LANGUAGE);
+
+        String translated = out.toString();
+        assertTrue(translated.startsWith("[Paragraph 0, sentence 0."));
+        assertEquals(document.toString(), translated.replace("[", "").replace("]", ""));
+        assertTrue(maxChunkLength.get() <= 80);
+    }
+
+    @Test
+    void translate_sentenceLongerThanChunk_splitByWhitespace() throws IOException {
+        AtomicInteger maxChunkLength = new AtomicInteger();
+        stubBracketTranslation(maxChunkLength);
+        String sentence = "word ".repeat(40).trim() + ".";
+
+        StringWriter out = new StringWriter();
+        new DocumentTranslator(service, 32, 2).translate(new StringReader(sentence), out, VALID_TARGET_LANGUAGE);
+
+        assertEquals(sentence, out.toString().replace("[", "").replace("]", ""));
+        assertTrue(maxChunkLength.get() <= 32);
+    }
+
+    @Test
+    void translate_chunkFails_failure() {
+        when(googleTranslate.translate(anyString(), eq(getTranslateOptionForValidLanguage()))).thenThrow(new RuntimeException());
+
+        assertThrows(MyTranslationServiceException.class, () -> new DocumentTranslator(service)
+                .translate(new StringReader("Some sentence."), new StringWriter(), VALID_TARGET_LANGUAGE));
+    }
+}
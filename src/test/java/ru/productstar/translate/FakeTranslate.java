@@ -0,0 +1,260 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Detection;
+import com.google.cloud.translate.FakeTranslations;
+import com.google.cloud.translate.Language;
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.TranslateException;
+import com.google.cloud.translate.TranslateOptions;
+import com.google.cloud.translate.Translation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Поддельный Google Translate, работающий в том же процессе.
+ * <p>
+ * Переводит по детерминированному словарю: известные предложения берутся из словаря, остальные возвращаются
+ * с префиксом целевого языка, например {@code "[ru] Some sentence"}. Задержка каждого вызова берется
+ * из {@link LatencyDistribution}, доля вызовов завершается {@link TranslateException} с кодом 503,
+ * пакет больше {@code maxBatchSize} отклоняется с кодом 400. Случайность задается зерном, поэтому прогоны
+ * повторяемы.
+ */
+public class FakeTranslate implements Translate {
+    /**
+     * Распределение задержки одного вызова.
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+        long nextNanos(Random random);
+
+        static LatencyDistribution none() {
+            return random -> 0;
+        }
+
+        static LatencyDistribution fixed(Duration latency) {
+            long nanos = latency.toNanos();
+            return random -> nanos;
+        }
+
+        static LatencyDistribution uniform(Duration min, Duration max) {
+            long minNanos = min.toNanos();
+            long spread = max.toNanos() - minNanos;
+            return random -> minNanos + (long) (random.nextDouble() * spread);
+        }
+
+        /**
+         * Логнормальное распределение с медианой {@code median}: длинный хвост, как у настоящего API.
+         */
+        static LatencyDistribution logNormal(Duration median, double sigma) {
+            double mu = Math.log(median.toNanos());
+            return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+        }
+    }
+
+    private final Map<String, String> dictionary;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final int maxBatchSize;
+    private final Random random;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder batchCalls = new LongAdder();
+    private final LongAdder translatedTexts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+
+    private FakeTranslate(Builder builder) {
+        this.dictionary = new HashMap<>(builder.dictionary);
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.random = new Random(builder.seed);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Translation translate(String text, TranslateOption... options) {
+        calls.increment();
+        String targetLanguage = targetLanguage(options);
+        respond();
+        translatedTexts.increment();
+        return FakeTranslations.translation(translateText(text, targetLanguage), "en");
+    }
+
+    @Override
+    public List<Translation> translate(List<String> texts, TranslateOption... options) {
+        calls.increment();
+        batchCalls.increment();
+        String targetLanguage = targetLanguage(options);
+        if (texts.size() > maxBatchSize) {
+            failures.increment();
+            throw new TranslateException(400, "Too many text segments: " + texts.size() + " > " + maxBatchSize);
+        }
+        respond();
+
+        List<Translation> translations = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            translations.add(FakeTranslations.translation(translateText(text, targetLanguage), "en"));
+        }
+        translatedTexts.add(texts.size());
+        return translations;
+    }
+
+    /**
+     * Перевод, который вернет поддельный API.
+     */
+    public String translateText(String text, String targetLanguage) {
+        String translation = dictionary.get(text);
+        return translation != null ? translation : "[" + targetLanguage + "] " + text;
+    }
+
+    @Override
+    public List<Language> listSupportedLanguages(LanguageListOption... options) {
+        throw new UnsupportedOperationException("not supported by the fake");
+    }
+
+    @Override
+    public List<Detection> detect(List<String> texts) {
+        throw new UnsupportedOperationException("not supported by the fake");
+    }
+
+    @Override
+    public List<Detection> detect(String... texts) {
+        throw new UnsupportedOperationException("not supported by the fake");
+    }
+
+    @Override
+    public Detection detect(String text) {
+        throw new UnsupportedOperationException("not supported by the fake");
+    }
+
+    @Override
+    public TranslateOptions getOptions() {
+        return null;
+    }
+
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    public long getBatchCallCount() {
+        return batchCalls.sum();
+    }
+
+    public long getTranslatedCount() {
+        return translatedTexts.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Суммарная задержка, которую выдержали вызовы.
+     */
+    public Duration getTotalLatency() {
+        return Duration.ofNanos(latencyNanos.sum());
+    }
+
+    /**
+     * Наибольшее число вызовов, которые одновременно ждали ответа.
+     */
+    public long getMaxInFlightCount() {
+        return maxInFlight.get();
+    }
+
+    private void respond() {
+        maxInFlight.accumulate(inFlight.incrementAndGet());
+        try {
+            respondAfterDelay();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respondAfterDelay() {
+        long delayNanos;
+        boolean fail;
+        synchronized (random) {
+            delayNanos = latency.nextNanos(random);
+            fail = errorRate > 0 && random.nextDouble() < errorRate;
+        }
+        if (delayNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(delayNanos));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TranslateException(503, "Interrupted", ex);
+            }
+            latencyNanos.add(delayNanos);
+        }
+        if (fail) {
+            failures.increment();
+            throw new TranslateException(503, "Service unavailable");
+        }
+    }
+
+    private static String targetLanguage(TranslateOption... options) {
+        String targetLanguage = FakeTranslations.targetLanguage(options);
+        if (targetLanguage == null) {
+            throw new TranslateException(400, "Target language is required");
+        }
+        return targetLanguage;
+    }
+
+    public static class Builder {
+        private final Map<String, String> dictionary = new HashMap<>();
+        private LatencyDistribution latency = LatencyDistribution.none();
+        private double errorRate;
+        private int maxBatchSize = 128;
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        public Builder translation(String text, String translation) {
+            dictionary.put(text, translation);
+            return this;
+        }
+
+        public Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("error rate must be in [0, 1]");
+            }
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public FakeTranslate build() {
+            return new FakeTranslate(this);
+        }
+    }
+}
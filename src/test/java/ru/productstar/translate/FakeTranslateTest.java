@@ -0,0 +1,78 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.TranslateException;
+import com.google.cloud.translate.Translation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FakeTranslateTest {
+
+    private static final Translate.TranslateOption RU = Translate.TranslateOption.targetLanguage("ru");
+
+    @Test
+    void translate_knownAndUnknownSentences() {
+        FakeTranslate fake = FakeTranslate.builder().translation("Some sentence", "Какое-то предложение").build();
+
+        assertEquals("Какое-то предложение", fake.translate("Some sentence", RU).getTranslatedText());
+        assertEquals("[ru] Other sentence", fake.translate("Other sentence", RU).getTranslatedText());
+        assertEquals(2, fake.getCallCount());
+    }
+
+    @Test
+    void translate_batch_keepsOrder() {
+        FakeTranslate fake = FakeTranslate.builder().build();
+
+        List<Translation> translations = fake.translate(List.of("one", "two", "three"), RU);
+
+        assertEquals(List.of("[ru] one", "[ru] two", "[ru] three"),
+                translations.stream().map(Translation::getTranslatedText).toList());
+        assertEquals(1, fake.getBatchCallCount());
+        assertEquals(3, fake.getTranslatedCount());
+    }
+
+    @Test
+    void translate_batchOverLimit_failure() {
+        FakeTranslate fake = FakeTranslate.builder().maxBatchSize(2).build();
+
+        TranslateException ex = assertThrows(TranslateException.class,
+                () -> fake.translate(Collections.nCopies(3, "text"), RU));
+        assertEquals(400, ex.getCode());
+    }
+
+    @Test
+    void translate_errorRate_sameSeedSameFailures() {
+        assertEquals(failures(7), failures(7));
+        long failures = failures(7);
+        assertTrue(failures > 100 && failures < 400, "failures: " + failures);
+    }
+
+    @Test
+    void translate_fixedLatency_waits() {
+        FakeTranslate fake = FakeTranslate.builder()
+                .latency(FakeTranslate.LatencyDistribution.fixed(Duration.ofMillis(50)))
+                .build();
+
+        fake.translate("text", RU);
+        fake.translate(List.of("one", "two"), RU);
+
+        assertEquals(Duration.ofMillis(100), fake.getTotalLatency());
+    }
+
+    private static long failures(long seed) {
+        FakeTranslate fake = FakeTranslate.builder().errorRate(0.25).seed(seed).build();
+        for (int i = 0; i < 1_000; i++) {
+            try {
+                fake.translate("text", RU);
+            } catch (TranslateException ex) {
+                assertEquals(503, ex.getCode());
+            }
+        }
+        return fake.getFailureCount();
+    }
+}
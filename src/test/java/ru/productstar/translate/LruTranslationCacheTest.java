@@ -0,0 +1,70 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruTranslationCacheTest {
+
+    private static final TranslationKey HELLO = new TranslationKey("Hello", "ru");
+    private static final TranslationKey WORLD = new TranslationKey("World", "ru");
+    private static final TranslationKey PHONE = new TranslationKey("Phone", "ru");
+
+    @Test
+    void get_afterPut_hit() {
+        LruTranslationCache cache = new LruTranslationCache(10);
+
+        assertNull(cache.get(HELLO));
+        cache.put(HELLO, "Привет");
+
+        assertEquals("Привет", cache.get(HELLO));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void peek_notCounted() {
+        LruTranslationCache cache = new LruTranslationCache(10);
+
+        assertNull(cache.peek(HELLO));
+        cache.put(HELLO, "Привет");
+
+        assertEquals("Привет", cache.peek(HELLO));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void put_overMaxSize_evictsLeastRecentlyUsed() {
+        LruTranslationCache cache = new LruTranslationCache(2);
+        cache.put(HELLO, "Привет");
+        cache.put(WORLD, "Мир");
+        cache.get(HELLO);
+
+        cache.put(PHONE, "Телефон");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("Привет", cache.get(HELLO));
+        assertNull(cache.get(WORLD));
+        assertEquals("Телефон", cache.get(PHONE));
+    }
+
+    @Test
+    void get_afterTtl_miss() {
+        AtomicLong clock = new AtomicLong();
+        LruTranslationCache cache = new LruTranslationCache(10, Duration.ofMinutes(1), clock::get);
+        cache.put(HELLO, "Привет");
+
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals("Привет", cache.get(HELLO));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get(HELLO));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+}
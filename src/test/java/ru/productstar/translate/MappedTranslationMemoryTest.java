@@ -0,0 +1,168 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTranslationMemoryTest {
+
+    private static final TranslationKey HELLO = new TranslationKey("Hello", "ru");
+    private static final TranslationKey WORLD = new TranslationKey("World", "ru");
+
+    private Path path;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        path = Files.createTempFile("translation-memory", ".log");
+        Files.delete(path);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".compact"));
+    }
+
+    @Test
+    void get_afterReopen_servesStoredTranslations() throws IOException {
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            memory.put(HELLO, "Привет");
+            memory.put(WORLD, "Мир");
+            assertEquals("Привет", memory.get(HELLO));
+        }
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals(2, memory.size());
+            assertEquals("Привет", memory.get(HELLO));
+            assertEquals("Мир", memory.get(WORLD));
+            assertNull(memory.get(new TranslationKey("Hello", "de")));
+            assertEquals(2, memory.getHitCount());
+            assertEquals(1, memory.getMissCount());
+        }
+    }
+
+    @Test
+    void put_existingKey_lastTranslationWins() throws IOException {
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            memory.put(HELLO, "Привет");
+            memory.put(HELLO, "Здравствуйте");
+
+            assertEquals("Здравствуйте", memory.get(HELLO));
+            assertEquals(1, memory.size());
+            assertEquals(1, memory.getStaleCount());
+        }
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals("Здравствуйте", memory.get(HELLO));
+        }
+    }
+
+    @Test
+    void open_tornLastRecord_recoversPreviousRecords() throws IOException {
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            memory.put(HELLO, "Привет");
+            memory.put(WORLD, "Мир");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals(1, memory.size());
+            assertEquals("Привет", memory.get(HELLO));
+            assertNull(memory.get(WORLD));
+
+            memory.put(WORLD, "Мир");
+        }
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals("Мир", memory.get(WORLD));
+        }
+    }
+
+    @Test
+    void open_corruptedRecord_dropsTail() throws IOException {
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            memory.put(HELLO, "Привет");
+            memory.put(WORLD, "Мир");
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(path, bytes);
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals("Привет", memory.get(HELLO));
+            assertNull(memory.get(WORLD));
+        }
+    }
+
+    @Test
+    void compact_dropsStaleRecords() throws IOException {
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            for (int i = 0; i < 100; i++) {
+                memory.put(HELLO, "Привет " + i);
+            }
+            memory.put(WORLD, "Мир");
+            long before = memory.getLogSize();
+
+            memory.compact();
+
+            assertTrue(memory.getLogSize() < before);
+            assertEquals(0, memory.getStaleCount());
+            assertEquals("Привет 99", memory.get(HELLO));
+            assertEquals("Мир", memory.get(WORLD));
+        }
+
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertEquals(2, memory.size());
+            assertEquals("Привет 99", memory.get(HELLO));
+        }
+    }
+
+    @Test
+    void put_compactionFails_translationKeptAndFailureCounted() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Path blocker = compacted.resolve("blocker");
+        Files.createDirectories(compacted);
+        Files.createFile(blocker);
+        try (MappedTranslationMemory memory = new MappedTranslationMemory(path)) {
+            assertThrows(IOException.class, memory::compact);
+
+            for (int i = 0; i < 1_100; i++) {
+                memory.put(HELLO, "Привет " + i);
+            }
+
+            assertTrue(memory.getWriteFailureCount() > 0);
+            assertEquals("Привет 1099", memory.get(HELLO));
+            memory.put(WORLD, "Мир");
+            assertEquals("Мир", memory.get(WORLD));
+        } finally {
+            Files.delete(blocker);
+            Files.delete(compacted);
+        }
+
+        try (MappedTranslationMemory reopened = new MappedTranslationMemory(path)) {
+            assertEquals("Привет 1099", reopened.get(HELLO));
+            assertEquals("Мир", reopened.get(WORLD));
+            reopened.compact();
+            assertEquals(0, reopened.getStaleCount());
+            assertEquals("Мир", reopened.get(WORLD));
+        }
+    }
+
+    @Test
+    void open_notTranslationMemory_failure() throws IOException {
+        Files.writeString(path, "not a translation memory");
+
+        assertThrows(IOException.class, () -> new MappedTranslationMemory(path));
+        assertEquals("not a translation memory", Files.readString(path));
+    }
+}
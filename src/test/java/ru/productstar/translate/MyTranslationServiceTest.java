@@ -0,0 +1,339 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.Translation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MyTranslationServiceTest {
+
+    @Mock
+    private Translate googleTranslate;
+
+    @Mock
+    private Translation translation;
+
+    private static final String SOME_SENTENCE = "Some sentence";
+    private static final String SOME_SENTENCE_RU_TRANSLATION = "Какое-то предложение";
+    private static final String VALID_TARGET_LANGUAGE = "ru";
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(googleTranslate.translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()))).thenReturn(translation);
+        lenient().when(translation.getTranslatedText()).thenReturn(SOME_SENTENCE_RU_TRANSLATION);
+    }
+
+    private Translate.TranslateOption getTranslateOptionForValidLanguage() {
+        return Translate.TranslateOption.targetLanguage(VALID_TARGET_LANGUAGE);
+    }
+
+    /**
+     * Repeated sentence is translated by `googleTranslate` only once when a cache is configured.
+     */
+    @Test
+    void translateWithGoogle_withCache_repeatedSentenceCallsGoogleOnce() {
+        LruTranslationCache cache = new LruTranslationCache(100);
+        MyTranslationService service = MyTranslationService.builder(googleTranslate).cache(cache).build();
+
+        assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+        assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+        assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+
+        verify(googleTranslate, times(1)).translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * A translation cached by the previous leader after this caller's cache miss is picked up before calling
+     * `googleTranslate`: the cache below misses on `get` and only finds the translation on `peek`.
+     */
+    @Test
+    void translateWithGoogle_cachedAfterMiss_noGoogleCall() {
+        LruTranslationCache stored = new LruTranslationCache(100);
+        stored.put(new TranslationKey(SOME_SENTENCE, VALID_TARGET_LANGUAGE), SOME_SENTENCE_RU_TRANSLATION);
+        TranslationCache missedThenStored = new TranslationCache() {
+            @Override
+            public String get(TranslationKey key) {
+                return null;
+            }
+
+            @Override
+            public String peek(TranslationKey key) {
+                return stored.peek(key);
+            }
+
+            @Override
+            public void put(TranslationKey key, String translation) {
+                stored.put(key, translation);
+            }
+        };
+        MyTranslationService service = MyTranslationService.builder(googleTranslate).cache(missedThenStored).build();
+
+        assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+
+        verifyNoInteractions(googleTranslate);
+    }
+
+    /**
+     * Failed translations are not cached and are still wrapped into `MyTranslationServiceException`.
+     */
+    @Test
+    void translateWithGoogle_withCache_googleTranslateThrowsException_failure() {
+        when(googleTranslate.translate(eq("broken"), eq(getTranslateOptionForValidLanguage()))).thenThrow(new RuntimeException());
+        LruTranslationCache cache = new LruTranslationCache(100);
+        MyTranslationService service = MyTranslationService.builder(googleTranslate).cache(cache).build();
+
+        assertThrows(MyTranslationServiceException.class, () -> service.translateWithGoogle("broken", VALID_TARGET_LANGUAGE));
+        assertThrows(MyTranslationServiceException.class, () -> service.translateWithGoogle("broken", VALID_TARGET_LANGUAGE));
+
+        verify(googleTranslate, times(2)).translate(eq("broken"), eq(getTranslateOptionForValidLanguage()));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Async variant completes with the translation and wraps failures into `MyTranslationServiceException`.
+     */
+    @Test
+    void translateWithGoogleAsync_success_and_failure() {
+        when(googleTranslate.translate(eq("broken"), eq(getTranslateOptionForValidLanguage()))).thenThrow(new RuntimeException());
+        try (MyTranslationService service = new MyTranslationService(googleTranslate)) {
+            assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogleAsync(SOME_SENTENCE, VALID_TARGET_LANGUAGE).join());
+
+            CompletionException ex = assertThrows(CompletionException.class,
+                    () -> service.translateWithGoogleAsync("broken", VALID_TARGET_LANGUAGE).join());
+            assertTrue(ex.getCause() instanceof MyTranslationServiceException);
+        }
+    }
+
+    /**
+     * Load test against `googleTranslate`: calls run in parallel up to the concurrency limit and never beyond it.
+     * Each call waits until the limit is reached, so the peak does not depend on machine speed.
+     */
+    @Test
+    void translateWithGoogleAsync_upstreamCallsRunInParallelUpToLimit() {
+        assertEquals(1, peakUpstreamConcurrency(1, 32));
+        assertEquals(8, peakUpstreamConcurrency(8, 32));
+    }
+
+    private int peakUpstreamConcurrency(int maxInFlight, int requests) {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch limitReached = new CountDownLatch(maxInFlight);
+        when(googleTranslate.translate(anyString(), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            limitReached.countDown();
+            limitReached.await(10, TimeUnit.SECONDS);
+            inFlight.decrementAndGet();
+            return translation;
+        });
+
+        try (MyTranslationService service = MyTranslationService.builder(googleTranslate)
+                .concurrency(maxInFlight, requests)
+                .build()) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(service.translateWithGoogleAsync(SOME_SENTENCE + " " + i, VALID_TARGET_LANGUAGE));
+            }
+            results.forEach(result -> assertEquals(SOME_SENTENCE_RU_TRANSLATION, result.join()));
+        }
+        return peak.get();
+    }
+
+    /**
+     * Bulk requests waiting for quota do not hold in-flight slots, so an interactive request overtakes them
+     * even when every slot would otherwise be taken.
+     */
+    @Test
+    void translateWithGoogleAsync_withConcurrencyAndRateLimit_interactiveNotBlockedByBulk() {
+        FakeTranslate fake = FakeTranslate.builder().build();
+        TranslationRateLimiter rateLimiter = new TranslationRateLimiter(1_000_000, 4);
+
+        try (MyTranslationService service = MyTranslationService.builder(fake)
+                .concurrency(1, 10)
+                .rateLimiter(rateLimiter)
+                .build()) {
+            for (int i = 0; i < 4; i++) {
+                service.translateWithGoogle(SOME_SENTENCE + " " + i, VALID_TARGET_LANGUAGE, TranslationPriority.BULK);
+            }
+            List<CompletableFuture<String>> bulk = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                bulk.add(service.translateWithGoogleAsync("Bulk " + i, VALID_TARGET_LANGUAGE, TranslationPriority.BULK));
+            }
+            while (rateLimiter.getWaitingCount(TranslationPriority.BULK) < 3) {
+                Thread.onSpinWait();
+            }
+
+            assertEquals("[ru] " + SOME_SENTENCE, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+            assertFalse(bulk.get(2).isDone());
+            bulk.forEach(CompletableFuture::join);
+        }
+    }
+
+    /**
+     * Requests beyond the in-flight limit and the queue are rejected instead of piling up.
+     */
+    @Test
+    void translateWithGoogleAsync_overConcurrencyLimit_rejected() {
+        when(googleTranslate.translate(anyString(), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return translation;
+        });
+
+        try (MyTranslationService service = MyTranslationService.builder(googleTranslate).concurrency(1, 0).build()) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(service.translateWithGoogleAsync(SOME_SENTENCE + " " + i, VALID_TARGET_LANGUAGE));
+            }
+
+            long rejected = results.stream().filter(result -> {
+                try {
+                    result.join();
+                    return false;
+                } catch (CompletionException ex) {
+                    return ex.getCause() instanceof MyTranslationServiceException;
+                }
+            }).count();
+            assertEquals(4, rejected);
+        }
+    }
+
+    /**
+     * Identical sentences requested at the same moment share one `googleTranslate` call, even without a cache.
+     */
+    @Test
+    void translateWithGoogleAsync_identicalInFlightSentences_oneGoogleCall() {
+        when(googleTranslate.translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return translation;
+        });
+
+        try (MyTranslationService service = new MyTranslationService(googleTranslate)) {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(service.translateWithGoogleAsync(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+            }
+            results.forEach(result -> assertEquals(SOME_SENTENCE_RU_TRANSLATION, result.join()));
+        }
+
+        verify(googleTranslate, times(1)).translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()));
+    }
+
+    /**
+     * After repeated failures the circuit breaker fails fast without calling `googleTranslate`.
+     */
+    @Test
+    void translateWithGoogle_circuitBreakerOpen_failsFast() {
+        when(googleTranslate.translate(anyString(), eq(getTranslateOptionForValidLanguage()))).thenThrow(new RuntimeException());
+        MyTranslationService service = MyTranslationService.builder(googleTranslate)
+                .circuitBreaker(2, Duration.ofMinutes(1))
+                .build();
+
+        assertThrows(MyTranslationServiceException.class, () -> service.translateWithGoogle("broken 1", VALID_TARGET_LANGUAGE));
+        assertThrows(MyTranslationServiceException.class, () -> service.translateWithGoogle("broken 2", VALID_TARGET_LANGUAGE));
+        assertThrows(MyTranslationServiceException.class, () -> service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+
+        verify(googleTranslate, times(2)).translate(anyString(), eq(getTranslateOptionForValidLanguage()));
+    }
+
+    /**
+     * A slow `googleTranslate` call is hedged and the first answer is returned.
+     */
+    @Test
+    void translateWithGoogle_withHedging_slowCallHedged() {
+        AtomicInteger calls = new AtomicInteger();
+        when(googleTranslate.translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            Thread.sleep(calls.incrementAndGet() == 1 ? 1_000 : 10);
+            return translation;
+        });
+
+        try (MyTranslationService service = MyTranslationService.builder(googleTranslate)
+                .hedging(0.95, Duration.ofMillis(50))
+                .build()) {
+            assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+        }
+
+        verify(googleTranslate, times(2)).translate(eq(SOME_SENTENCE), eq(getTranslateOptionForValidLanguage()));
+    }
+
+    /**
+     * The hedge needs its own in-flight slot: with a single slot held by the slow primary no hedge is sent.
+     */
+    @Test
+    void translateWithGoogle_withHedgingAndConcurrencyLimit_hedgeNeedsOwnSlot() {
+        FakeTranslate fake = FakeTranslate.builder()
+                .latency(FakeTranslate.LatencyDistribution.fixed(Duration.ofMillis(300)))
+                .build();
+
+        try (MyTranslationService service = MyTranslationService.builder(fake)
+                .concurrency(1, 0)
+                .hedging(0.95, Duration.ofMillis(20))
+                .build()) {
+            assertEquals("[ru] " + SOME_SENTENCE, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+        }
+
+        assertEquals(1, fake.getCallCount());
+    }
+
+    /**
+     * When hedges win, the slow primaries keep running upstream; their slots stay taken until they finish,
+     * so upstream never sees more calls at once than the in-flight limit.
+     */
+    @Test
+    void translateWithGoogle_hedgesWin_upstreamConcurrencyWithinLimit() {
+        AtomicInteger calls = new AtomicInteger();
+        FakeTranslate fake = FakeTranslate.builder()
+                .latency(random -> calls.getAndIncrement() % 2 == 0 ? Duration.ofMillis(200).toNanos() : 0)
+                .build();
+
+        try (MyTranslationService service = MyTranslationService.builder(fake)
+                .concurrency(2, 100)
+                .hedging(0.5, Duration.ofMillis(20))
+                .build()) {
+            for (int i = 0; i < 10; i++) {
+                service.translateWithGoogle(SOME_SENTENCE + " " + i, VALID_TARGET_LANGUAGE);
+            }
+        }
+
+        assertTrue(fake.getCallCount() > 10, "no hedge was sent");
+        assertTrue(fake.getMaxInFlightCount() <= 2, "upstream in flight: " + fake.getMaxInFlightCount());
+    }
+
+    /**
+     * Text that needs no translation is returned as is without calling `googleTranslate`.
+     */
+    @Test
+    void translateWithGoogle_withPreClassifier_untranslatableTextSkipsGoogle() {
+        TranslationPreClassifier preClassifier = new TranslationPreClassifier();
+        MyTranslationService service = MyTranslationService.builder(googleTranslate).preClassifier(preClassifier).build();
+
+        assertEquals("", service.translateWithGoogle("", VALID_TARGET_LANGUAGE));
+        assertEquals("1 299,00", service.translateWithGoogle("1 299,00", VALID_TARGET_LANGUAGE));
+        assertEquals("AB-1234", service.translateWithGoogle("AB-1234", VALID_TARGET_LANGUAGE));
+        assertEquals("Молоко", service.translateWithGoogle("Молоко", VALID_TARGET_LANGUAGE));
+        assertEquals(SOME_SENTENCE_RU_TRANSLATION, service.translateWithGoogle(SOME_SENTENCE, VALID_TARGET_LANGUAGE));
+
+        verify(googleTranslate, times(1)).translate(anyString(), any(Translate.TranslateOption[].class));
+        assertEquals(4, preClassifier.getAvoidedCount());
+    }
+}
@@ -0,0 +1,96 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final TranslationKey HELLO = new TranslationKey("Hello", "ru");
+
+    @Test
+    void run_concurrentSameKey_oneCallSharedResult() throws Exception {
+        SingleFlight<TranslationKey, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> results = runConcurrently(20, () -> singleFlight.run(HELLO, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "Привет";
+        }));
+        waitForCall(calls);
+        Thread.sleep(50);
+        release.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("Привет", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    void run_callFails_failurePropagatesToEveryWaiter() throws Exception {
+        SingleFlight<TranslationKey, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> results = runConcurrently(10, () -> singleFlight.run(HELLO, () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new MyTranslationServiceException("broken", null);
+        }));
+        waitForCall(calls);
+        Thread.sleep(50);
+        release.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            CompletionException ex = assertThrows(CompletionException.class, result::join);
+            assertTrue(ex.getCause() instanceof MyTranslationServiceException);
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    void run_afterCompletion_callsAgain() {
+        SingleFlight<TranslationKey, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.run(HELLO, () -> "Привет" + calls.incrementAndGet());
+
+        assertEquals("Привет2", singleFlight.run(HELLO, () -> "Привет" + calls.incrementAndGet()));
+    }
+
+    private static List<CompletableFuture<String>> runConcurrently(int threads, Supplier<String> task) {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(CompletableFuture.supplyAsync(task, runnable -> Thread.ofVirtual().start(runnable)));
+        }
+        return results;
+    }
+
+    private static void waitForCall(AtomicInteger calls) {
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
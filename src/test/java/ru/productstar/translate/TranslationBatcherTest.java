@@ -0,0 +1,132 @@
+package ru.productstar.translate;
+
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.Translation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TranslationBatcherTest {
+
+    @Mock
+    private Translate googleTranslate;
+
+    private TranslationBatcher batcher;
+
+    private static final String VALID_TARGET_LANGUAGE = "ru";
+
+    @AfterEach
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    private Translate.TranslateOption getTranslateOptionForValidLanguage() {
+        return Translate.TranslateOption.targetLanguage(VALID_TARGET_LANGUAGE);
+    }
+
+    private static Translation translationOf(String text) {
+        Translation translation = mock(Translation.class);
+        when(translation.getTranslatedText()).thenReturn(text);
+        return translation;
+    }
+
+    /**
+     * Concurrent sentences submitted within `linger` are sent to `googleTranslate` in a single batch call.
+     */
+    @Test
+    void submit_concurrentSentences_sentInOneBatch() {
+        when(googleTranslate.translate(anyList(), eq(getTranslateOptionForValidLanguage()))).thenAnswer(invocation -> {
+            List<String> sentences = invocation.getArgument(0);
+            List<Translation> translations = new ArrayList<>();
+            for (String sentence : sentences) {
+                translations.add(translationOf("ru:" + sentence));
+            }
+            return translations;
+        });
+        batcher = new TranslationBatcher(googleTranslate, Duration.ofMillis(200), 100);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(batcher.submit("sentence " + i, VALID_TARGET_LANGUAGE));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ru:sentence " + i, results.get(i).join());
+        }
+        verify(googleTranslate, times(1)).translate(anyList(), eq(getTranslateOptionForValidLanguage()));
+        verify(googleTranslate, never()).translate(anyString(), any(Translate.TranslateOption[].class));
+    }
+
+    /**
+     * When the batch call fails, every caller gets the failure and no sentence is retried on its own.
+     */
+    @Test
+    void submit_batchCallFails_noPerSentenceRetry() {
+        FakeTranslate fake = FakeTranslate.builder().errorRate(1).build();
+        batcher = new TranslationBatcher(fake, Duration.ofMillis(200), 100);
+
+        CompletableFuture<String> first = batcher.submit("Some sentence", VALID_TARGET_LANGUAGE);
+        CompletableFuture<String> second = batcher.submit("Other sentence", VALID_TARGET_LANGUAGE);
+
+        CompletionException firstEx = assertThrows(CompletionException.class, first::join);
+        CompletionException secondEx = assertThrows(CompletionException.class, second::join);
+        assertTrue(firstEx.getCause() instanceof MyTranslationServiceException);
+        assertTrue(secondEx.getCause() instanceof MyTranslationServiceException);
+        assertEquals(1, fake.getCallCount());
+        assertEquals(1, fake.getBatchCallCount());
+    }
+
+    /**
+     * The batch takes one request token from the rate limiter per upstream call, not one per sentence.
+     */
+    @Test
+    void submit_withRateLimiter_oneRequestPerBatchCall() {
+        FakeTranslate fake = FakeTranslate.builder().build();
+        TranslationRateLimiter rateLimiter = new TranslationRateLimiter(1_000_000, 100);
+        batcher = new TranslationBatcher(fake, Duration.ofMillis(200), 100, rateLimiter);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(batcher.submit("Sentence " + i, VALID_TARGET_LANGUAGE, TranslationPriority.BULK));
+        }
+        results.forEach(CompletableFuture::join);
+
+        assertEquals(1, fake.getBatchCallCount());
+        assertEquals(1, rateLimiter.getAcquireCount(TranslationPriority.BULK));
+    }
+
+    /**
+     * When the batch call returns the wrong number of translations, every sentence is translated separately
+     * and only the broken one fails.
+     */
+    @Test
+    void submit_incompleteBatch_eachCallerGetsOwnResult() {
+        when(googleTranslate.translate(anyList(), eq(getTranslateOptionForValidLanguage()))).thenReturn(List.of());
+        Translation translation = translationOf("Какое-то предложение");
+        when(googleTranslate.translate(eq("Some sentence"), eq(getTranslateOptionForValidLanguage()))).thenReturn(translation);
+        when(googleTranslate.translate(eq("broken"), eq(getTranslateOptionForValidLanguage()))).thenThrow(new RuntimeException());
+        batcher = new TranslationBatcher(googleTranslate, Duration.ofMillis(200), 100);
+
+        CompletableFuture<String> good = batcher.submit("Some sentence", VALID_TARGET_LANGUAGE);
+        CompletableFuture<String> broken = batcher.submit("broken", VALID_TARGET_LANGUAGE);
+
+        assertEquals("Какое-то предложение", good.join());
+        CompletionException ex = assertThrows(CompletionException.class, broken::join);
+        assertTrue(ex.getCause() instanceof MyTranslationServiceException);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranslationHedgingTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void call_fastAnswer_notHedged() {
+        TranslationHedging hedging = new TranslationHedging(0.95, Duration.ofMillis(500), executor);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("Привет", hedging.call(stub(calls, 0, 0, false)));
+
+        assertEquals(1, calls.get());
+        assertEquals(0, hedging.getHedgedCount());
+    }
+
+    @Test
+    void call_slowFirstAnswer_hedgeWins() {
+        TranslationHedging hedging = new TranslationHedging(0.95, Duration.ofMillis(50), executor);
+        AtomicInteger calls = new AtomicInteger();
+
+        CountDownLatch primaryReleased = new CountDownLatch(1);
+        Supplier<String> upstream = () -> {
+            if (calls.incrementAndGet() == 1) {
+                await(primaryReleased);
+                return "primary";
+            }
+            return "Привет";
+        };
+
+        try {
+            assertEquals("Привет", hedging.call(upstream));
+        } finally {
+            primaryReleased.countDown();
+        }
+        assertEquals(2, calls.get());
+        assertEquals(1, hedging.getHedgedCount());
+    }
+
+    @Test
+    void call_bothAttemptsFail_failure() {
+        TranslationHedging hedging = new TranslationHedging(0.95, Duration.ofMillis(10), executor);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(MyTranslationServiceException.class, () -> hedging.call(stub(calls, 50, 50, true)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void call_noResourcesForHedge_waitsForPrimary() {
+        TranslationHedging hedging = new TranslationHedging(0.95, Duration.ofMillis(10), executor);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+
+        assertEquals("Привет", hedging.call(stub(calls, 100, 0, false), () -> {
+        }, () -> false, released::incrementAndGet));
+
+        assertEquals(1, calls.get());
+        assertEquals(0, hedging.getHedgedCount());
+        assertEquals(1, hedging.getSkippedCount());
+        assertEquals(0, released.get());
+    }
+
+    @Test
+    void call_primaryFailsBeforeDelay_noHedge() {
+        TranslationHedging hedging = new TranslationHedging(0.95, Duration.ofMillis(500), executor);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(MyTranslationServiceException.class, () -> hedging.call(stub(calls, 0, 0, true)));
+        assertEquals(1, calls.get());
+        assertEquals(0, hedging.getHedgedCount());
+    }
+
+    @Test
+    void call_manyAnswers_delayFollowsPercentile() {
+        AtomicLong clock = new AtomicLong();
+        TranslationHedging hedging = new TranslationHedging(0.5, Duration.ofSeconds(5), executor, clock::get);
+
+        for (int i = 1; i <= 15; i++) {
+            long latency = Duration.ofMillis(i).toNanos();
+            hedging.call(() -> {
+                clock.addAndGet(latency);
+                return "Привет";
+            });
+        }
+        assertEquals(Duration.ofSeconds(5), hedging.getDelay());
+
+        for (int i = 16; i <= 32; i++) {
+            long latency = Duration.ofMillis(i).toNanos();
+            hedging.call(() -> {
+                clock.addAndGet(latency);
+                return "Привет";
+            });
+        }
+        assertEquals(Duration.ofMillis(17), hedging.getDelay());
+        assertEquals(0, hedging.getHedgedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Stub upstream: the first call answers after {@code firstMillis}, the rest after {@code nextMillis}.
+     */
+    private static Supplier<String> stub(AtomicInteger calls, long firstMillis, long nextMillis, boolean failing) {
+        return () -> {
+            int call = calls.incrementAndGet();
+            try {
+                Thread.sleep(call == 1 ? firstMillis : nextMillis);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            if (failing) {
+                throw new MyTranslationServiceException("Exception while calling Google Translate API", null);
+            }
+            return "Привет";
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranslationLimiterTest {
+
+    @Test
+    void call_underLimit_returnsResult() {
+        TranslationLimiter limiter = new TranslationLimiter(2, 0);
+
+        assertEquals("Привет", limiter.call(() -> "Привет"));
+        assertEquals(0, limiter.getInFlightCount());
+    }
+
+    @Test
+    void call_overLimitAndQueue_rejected() throws Exception {
+        TranslationLimiter limiter = new TranslationLimiter(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> limiter.call(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> limiter.call(() -> "second"));
+        while (limiter.getQueuedCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(MyTranslationServiceException.class, () -> limiter.call(() -> "third"));
+        assertEquals(1, limiter.getRejectedCount());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getInFlightCount());
+        assertEquals(0, limiter.getQueuedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
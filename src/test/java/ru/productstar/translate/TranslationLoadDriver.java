@@ -0,0 +1,166 @@
+package ru.productstar.translate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочный прогон любой конфигурации {@link MyTranslationService}.
+ * <p>
+ * {@code concurrency} виртуальных потоков по кругу переводят предложения из списка, пока не будет выполнено
+ * {@code requests} вызовов. Время каждого вызова попадает в гистограмму с корзинами по степеням двойки
+ * микросекунд; каждый поток пишет в свою гистограмму, в конце они складываются.
+ */
+public class TranslationLoadDriver {
+    private final int concurrency;
+    private final int requests;
+
+    public TranslationLoadDriver(int concurrency, int requests) {
+        if (concurrency < 1 || requests < 1) {
+            throw new IllegalArgumentException("concurrency and requests must be positive");
+        }
+        this.concurrency = concurrency;
+        this.requests = requests;
+    }
+
+    public Report run(MyTranslationService service, List<String> sentences, String targetLanguage) {
+        AtomicInteger next = new AtomicInteger();
+        List<Histogram> histograms = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            Histogram histogram = new Histogram();
+            histograms.add(histogram);
+            workers.add(Thread.ofVirtual().start(() -> {
+                for (int request = next.getAndIncrement(); request < requests; request = next.getAndIncrement()) {
+                    String sentence = sentences.get(request % sentences.size());
+                    long callStart = System.nanoTime();
+                    boolean failed = false;
+                    try {
+                        service.translateWithGoogle(sentence, targetLanguage);
+                    } catch (RuntimeException ex) {
+                        failed = true;
+                    }
+                    histogram.record(System.nanoTime() - callStart, failed);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("load run interrupted", ex);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Histogram total = new Histogram();
+        histograms.forEach(total::add);
+        return new Report(Duration.ofNanos(elapsed), total);
+    }
+
+    public static final class Report {
+        private final Duration elapsed;
+        private final Histogram histogram;
+
+        private Report(Duration elapsed, Histogram histogram) {
+            this.elapsed = elapsed;
+            this.histogram = histogram;
+        }
+
+        public long getRequestCount() {
+            return histogram.count;
+        }
+
+        public long getErrorCount() {
+            return histogram.errors;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public double getThroughputPerSecond() {
+            return histogram.count * 1e9 / Math.max(1, elapsed.toNanos());
+        }
+
+        /**
+         * Верхняя граница корзины, в которую попадает перцентиль {@code percentile} от 0 до 1.
+         */
+        public Duration getLatencyPercentile(double percentile) {
+            return Duration.ofNanos(histogram.percentileNanos(percentile));
+        }
+
+        public Duration getMaxLatency() {
+            return Duration.ofNanos(histogram.maxNanos);
+        }
+
+        /**
+         * Непустые корзины гистограммы: граница корзины и количество вызовов.
+         */
+        public String histogram() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < Histogram.BUCKETS; i++) {
+                if (histogram.buckets[i] > 0) {
+                    text.append(String.format("  < %8d us: %d%n", Histogram.upperBoundMicros(i), histogram.buckets[i]));
+                }
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d elapsed=%dms throughput=%.1f/s p50=%dus p90=%dus p99=%dus max=%dus%n%s",
+                    getRequestCount(), getErrorCount(), elapsed.toMillis(), getThroughputPerSecond(),
+                    getLatencyPercentile(0.5).toNanos() / 1_000, getLatencyPercentile(0.9).toNanos() / 1_000,
+                    getLatencyPercentile(0.99).toNanos() / 1_000, histogram.maxNanos / 1_000, histogram());
+        }
+    }
+
+    private static final class Histogram {
+        private static final int BUCKETS = 40;
+
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long errors;
+        private long maxNanos;
+
+        void record(long nanos, boolean failed) {
+            long micros = Math.max(1, nanos / 1_000);
+            buckets[Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros))]++;
+            count++;
+            if (failed) {
+                errors++;
+            }
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            errors += other.errors;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+
+        long percentileNanos(double percentile) {
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return Math.min(maxNanos, upperBoundMicros(i) * 1_000);
+                }
+            }
+            return maxNanos;
+        }
+
+        static long upperBoundMicros(int bucket) {
+            return 1L << (bucket + 1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranslationLoadDriverTest {
+
+    private static final List<String> SENTENCES = sentences(1_000);
+
+    @Test
+    void run_reportsThroughputAndLatency() {
+        FakeTranslate fake = FakeTranslate.builder()
+                .latency(FakeTranslate.LatencyDistribution.uniform(Duration.ofMillis(1), Duration.ofMillis(3)))
+                .build();
+
+        TranslationLoadDriver.Report report = new TranslationLoadDriver(16, 400)
+                .run(new MyTranslationService(fake), SENTENCES, "ru");
+
+        assertEquals(400, report.getRequestCount());
+        assertEquals(0, report.getErrorCount());
+        assertTrue(report.getThroughputPerSecond() > 0);
+        assertTrue(report.getLatencyPercentile(0.5).compareTo(Duration.ofMillis(1)) >= 0);
+        assertTrue(report.getLatencyPercentile(0.99).compareTo(report.getMaxLatency()) <= 0);
+        assertFalse(report.histogram().isEmpty());
+    }
+
+    @Test
+    void run_withErrors_countsFailedCalls() {
+        FakeTranslate fake = FakeTranslate.builder().errorRate(0.5).build();
+
+        TranslationLoadDriver.Report report = new TranslationLoadDriver(4, 200)
+                .run(new MyTranslationService(fake), SENTENCES, "ru");
+
+        assertEquals(fake.getFailureCount(), report.getErrorCount());
+        assertTrue(report.getErrorCount() > 0);
+    }
+
+    @Test
+    void run_withCache_secondPassServedLocally() {
+        FakeTranslate fake = FakeTranslate.builder()
+                .latency(FakeTranslate.LatencyDistribution.fixed(Duration.ofMillis(2)))
+                .build();
+        LruTranslationCache cache = new LruTranslationCache(1_000);
+        MyTranslationService service = MyTranslationService.builder(fake)
+                .cache(cache)
+                .build();
+        TranslationLoadDriver driver = new TranslationLoadDriver(8, 200);
+
+        driver.run(service, SENTENCES.subList(0, 100), "ru");
+        assertEquals(100, fake.getCallCount());
+        long coldHits = cache.getHitCount();
+
+        TranslationLoadDriver.Report warm = driver.run(service, SENTENCES.subList(0, 100), "ru");
+
+        assertEquals(0, warm.getErrorCount());
+        assertEquals(100, fake.getCallCount());
+        assertEquals(coldHits + 200, cache.getHitCount());
+    }
+
+    private static List<String> sentences(int count) {
+        List<String> sentences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sentences.add("Sentence number " + i);
+        }
+        return sentences;
+    }
+}
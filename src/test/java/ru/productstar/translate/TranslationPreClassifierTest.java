@@ -0,0 +1,61 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.translate.TranslationPreClassifier.Category.*;
+import static ru.productstar.translate.TranslationPreClassifier.classify;
+
+public class TranslationPreClassifierTest {
+
+    @Test
+    void classify_emptyAndBlank() {
+        assertEquals(EMPTY, classify(""));
+        assertEquals(EMPTY, classify("  \t\n "));
+    }
+
+    @Test
+    void classify_noLetters() {
+        assertEquals(NO_LETTERS, classify("12345"));
+        assertEquals(NO_LETTERS, classify("1 299,00 ₽"));
+        assertEquals(NO_LETTERS, classify("+7 (999) 123-45-67"));
+        assertEquals(NO_LETTERS, classify("—"));
+    }
+
+    @Test
+    void classify_sku() {
+        assertEquals(SKU, classify("AB-1234"));
+        assertEquals(SKU, classify("X100/2.5"));
+        assertEquals(TRANSLATE, classify("ABC"));
+        assertEquals(TRANSLATE, classify("iPhone15"));
+        assertEquals(TRANSLATE, classify("AB 1234"));
+    }
+
+    @Test
+    void classify_cyrillic() {
+        assertEquals(CYRILLIC, classify("Молоко"));
+        assertEquals(CYRILLIC, classify("Хлеб, 500 г."));
+        assertEquals(TRANSLATE, classify("Молоко Milk"));
+    }
+
+    @Test
+    void classify_textToTranslate() {
+        assertEquals(TRANSLATE, classify("Some sentence"));
+        assertEquals(TRANSLATE, classify("Größe"));
+        assertEquals(TRANSLATE, classify("𝐀 bold"));
+    }
+
+    @Test
+    void needsNoTranslation_countsAvoidedCalls() {
+        TranslationPreClassifier preClassifier = new TranslationPreClassifier();
+
+        assertTrue(preClassifier.needsNoTranslation(""));
+        assertTrue(preClassifier.needsNoTranslation("42"));
+        assertTrue(preClassifier.needsNoTranslation("Молоко"));
+        assertFalse(preClassifier.needsNoTranslation("Milk"));
+
+        assertEquals(3, preClassifier.getAvoidedCount());
+        assertEquals(1, preClassifier.getCount(CYRILLIC));
+        assertEquals(1, preClassifier.getCount(TRANSLATE));
+    }
+}
@@ -0,0 +1,127 @@
+package ru.productstar.translate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.productstar.translate.TranslationPriority.BULK;
+import static ru.productstar.translate.TranslationPriority.INTERACTIVE;
+
+public class TranslationRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(Duration.ofSeconds(1000).toNanos());
+
+    @Test
+    void acquire_withinBudget_noWait() {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(1_000, 10, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(100, INTERACTIVE);
+        }
+
+        assertEquals(10, limiter.getAcquireCount(INTERACTIVE));
+        assertEquals(Duration.ZERO, limiter.getTotalWait(INTERACTIVE));
+    }
+
+    @Test
+    void tryAcquire_overRequestBudget_refillsWithTime() {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(1_000_000, 20, clock::get);
+
+        assertEquals(20, tryAcquireAll(limiter, 1));
+
+        advance(Duration.ofMillis(50));
+        assertEquals(1, tryAcquireAll(limiter, 1));
+
+        advance(Duration.ofMillis(100));
+        assertEquals(2, tryAcquireAll(limiter, 1));
+    }
+
+    @Test
+    void tryAcquire_overCharBudget_refillsWithTime() {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(100, 1_000, clock::get);
+        assertTrue(limiter.tryAcquire(100, BULK));
+
+        assertFalse(limiter.tryAcquire(50, BULK));
+        advance(Duration.ofMillis(499));
+        assertFalse(limiter.tryAcquire(50, BULK));
+        advance(Duration.ofMillis(1));
+        assertTrue(limiter.tryAcquire(50, BULK));
+    }
+
+    @Test
+    void acquire_overRequestBudget_waitsForRefill() throws InterruptedException {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(1_000_000, 20, clock::get);
+        assertEquals(20, tryAcquireAll(limiter, 1));
+
+        Thread waiter = Thread.ofVirtual().start(() -> limiter.acquire(1, BULK));
+        waitUntilWaiting(limiter, BULK);
+        advance(Duration.ofMillis(50));
+        waiter.join();
+
+        assertEquals(Duration.ofMillis(50), limiter.getTotalWait(BULK));
+        assertEquals(Duration.ofMillis(50), limiter.getMaxWait(BULK));
+    }
+
+    @Test
+    void acquire_charsOnly_noRequestTokensTaken() {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(1_000_000, 1, clock::get);
+        limiter.acquire(1, INTERACTIVE);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(100, 0, INTERACTIVE));
+        }
+        assertFalse(limiter.tryAcquire(1, INTERACTIVE));
+    }
+
+    @Test
+    void acquire_interactiveWaiting_goesAheadOfBulk() throws InterruptedException {
+        TranslationRateLimiter limiter = new TranslationRateLimiter(1_000_000, 5, clock::get);
+        assertEquals(5, tryAcquireAll(limiter, 1));
+        List<TranslationPriority> served = new CopyOnWriteArrayList<>();
+
+        Thread bulk = Thread.ofVirtual().start(() -> {
+            limiter.acquire(1, BULK);
+            served.add(BULK);
+        });
+        waitUntilWaiting(limiter, BULK);
+        Thread interactive = Thread.ofVirtual().start(() -> {
+            limiter.acquire(1, INTERACTIVE);
+            served.add(INTERACTIVE);
+        });
+        waitUntilWaiting(limiter, INTERACTIVE);
+
+        advance(Duration.ofMillis(200));
+        interactive.join();
+        assertEquals(List.of(INTERACTIVE), served);
+        assertEquals(1, limiter.getWaitingCount(BULK));
+
+        advance(Duration.ofMillis(200));
+        bulk.join();
+        assertEquals(List.of(INTERACTIVE, BULK), served);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    /**
+     * Забирает без ожидания все токены, которые есть прямо сейчас.
+     */
+    private static int tryAcquireAll(TranslationRateLimiter limiter, int charCount) {
+        int acquired = 0;
+        while (limiter.tryAcquire(charCount, INTERACTIVE)) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private static void waitUntilWaiting(TranslationRateLimiter limiter, TranslationPriority priority) {
+        while (limiter.getWaitingCount(priority) == 0) {
+            Thread.onSpinWait();
+        }
+    }
+}